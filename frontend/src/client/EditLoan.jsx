@@ -25,6 +25,8 @@ function EditLoan() {
     });
 
     const [incomes, setIncomes] = useState([]);
+    // Sent back with the edit so the server can refuse it if the loan changed since it was loaded
+    const [version, setVersion] = useState(null);
     const [isDarkMode, setIsDarkMode] = useState(() => {
         const saved = localStorage.getItem("isDarkMode");
         return saved !== null ? saved === "true" : false;
@@ -71,6 +73,7 @@ function EditLoan() {
                 loanType: data.loanType || ''
             });
             if (data.incomes) setIncomes(data.incomes);
+            setVersion(data.version ?? null);
         } catch (err) {
             toast.error('Ngarkimi i të dhënave dështoi.');
         }
@@ -108,11 +111,16 @@ function EditLoan() {
         try {
             await api.put(`/client/loans/${id}`, {
                 ...form,
-                incomes: incomes
+                incomes: incomes,
+                version: version
             });
             toast.success("Kredia u përditësua!");
             navigate('/client/home');
         } catch (err) {
+            if (err.response?.status === 409) {
+                toast.error("Kredia u ndryshua ndërkohë. Rifresko faqen dhe provo përsëri.");
+                return;
+            }
             toast.error("Përditësimi dështoi.");
         }
     };
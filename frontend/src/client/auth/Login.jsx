@@ -44,7 +44,8 @@ function Login() {
             if (role === 'client') navigate('/client/home');
             else toast.error("Roli i përdoruesit i panjohur");
         } catch (err) {
-            toast.error("Kredencialet e hyrjes janë të pavlefshme");
+            if (err.response?.status === 429) toast.error(err.response.data);
+            else toast.error("Kredencialet e hyrjes janë të pavlefshme");
         }
     };
 
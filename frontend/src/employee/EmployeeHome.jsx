@@ -1,5 +1,6 @@
-import { useEffect, useState } from 'react';
+import { useEffect, useRef, useState } from 'react';
 import api from './api/axios';
+import { subscribeLoanEvents } from './api/loanEvents';
 import { useNavigate } from 'react-router-dom';
 import { LogOut, Eye, Check, X, Clock, BarChart3, TrendingUp, AlertCircle, DollarSign, CreditCard, FileText, User, Sun, Moon} from 'lucide-react';
 import { toast } from 'react-toastify';
@@ -17,6 +18,8 @@ function EmployeeHome() {
     const [loading, setLoading] = useState(true);
     const [currentPage, setCurrentPage] = useState(1);
     const [applicationsPerPage] = useState(5);
+    const [pageCursors, setPageCursors] = useState([null]);
+    const [selectedIds, setSelectedIds] = useState([]);
     const [isDarkMode, setIsDarkMode] = useState(() => {
         const saved = localStorage.getItem('isDarkMode');
         return saved ? JSON.parse(saved) : false;
@@ -41,11 +44,22 @@ function EmployeeHome() {
         fetchProfileAndLoans();
     }, [navigate]);
 
-    // Pagination calculations
-    const indexOfLastApplication = currentPage * applicationsPerPage;
-    const indexOfFirstApplication = indexOfLastApplication - applicationsPerPage;
-    const currentApplications = applications.slice(indexOfFirstApplication, indexOfLastApplication);
-    const totalPages = Math.ceil(applications.length / applicationsPerPage);
+    // The stream outlives renders, so it calls whatever handler the latest render left here
+    const loanEventHandler = useRef(null);
+
+    useEffect(() => {
+        return subscribeLoanEvents(
+            event => loanEventHandler.current?.(event),
+            () => loanEventHandler.current?.({ type: 'resync' })
+        );
+    }, []);
+
+    // Pagination calculations (the server returns one page at a time)
+    const indexOfFirstApplication = (currentPage - 1) * applicationsPerPage;
+    const indexOfLastApplication = indexOfFirstApplication + applications.length;
+    const currentApplications = applications;
+    const totalPages = Math.max(1, Math.ceil(summaryStats.total / applicationsPerPage));
+    const hasNextPage = pageCursors.length > currentPage;
 
     const fetchProfileAndLoans = async () => {
         try {
@@ -64,30 +78,7 @@ function EmployeeHome() {
                     : '-'
             });
 
-            const loansRes = await api.get('/employee/loans');
-            setApplications(loansRes.data);
-
-            // Calculate summary stats from applications data
-            const stats = loansRes.data.reduce((acc, app) => {
-                acc.total++;
-                switch (app.status.toLowerCase()) {
-                    case 'applied':
-                        acc.pending++;
-                        break;
-                    case 'evaluation':
-                        acc.inProgress++;
-                        break;
-                    case 'approved':
-                        acc.approved++;
-                        break;
-                    case 'rejected':
-                        acc.rejected++;
-                        break;
-                }
-                return acc;
-            }, { pending: 0, inProgress: 0, approved: 0, rejected: 0, total: 0 });
-
-            setSummaryStats(stats);
+            await fetchApplications(1);
         } catch (err) {
             if (err.response?.status === 401 || err.response?.status === 403) {
                 toast.error("Sesioni ka skaduar ose nuk jeni i autorizuar. Ju lutemi hyni përsëri.");
@@ -99,32 +90,37 @@ function EmployeeHome() {
         }
     };
 
-    const fetchApplications = async () => {
+    const fetchSummary = async () => {
+        const res = await api.get('/employee/summary');
+        const pending = res.data.Applied || 0;
+        const inProgress = res.data.Evaluation || 0;
+        const approved = res.data.Approved || 0;
+        const rejected = res.data.Rejected || 0;
+        setSummaryStats({
+            pending,
+            inProgress,
+            approved,
+            rejected,
+            total: pending + inProgress + approved + rejected
+        });
+    };
+
+    // Loads one keyset page; pageCursors[n - 1] holds the afterId for page n
+    const fetchApplications = async (page = currentPage) => {
         try {
-            const res = await api.get('/employee/loans');
-            setApplications(res.data);
-
-            // Recalculate summary stats
-            const stats = res.data.reduce((acc, app) => {
-                acc.total++;
-                switch (app.status.toLowerCase()) {
-                    case 'applied':
-                        acc.pending++;
-                        break;
-                    case 'evaluation':
-                        acc.inProgress++;
-                        break;
-                    case 'approved':
-                        acc.approved++;
-                        break;
-                    case 'rejected':
-                        acc.rejected++;
-                        break;
-                }
-                return acc;
-            }, { pending: 0, inProgress: 0, approved: 0, rejected: 0, total: 0 });
-
-            setSummaryStats(stats);
+            const res = await api.get('/employee/loans', {
+                params: { afterId: pageCursors[page - 1] ?? undefined, size: applicationsPerPage }
+            });
+            setApplications(res.data.items);
+            setSelectedIds([]);
+            setCurrentPage(page);
+            setPageCursors(prev => {
+                const cursors = prev.slice(0, page);
+                if (res.data.nextCursor != null) cursors.push(res.data.nextCursor);
+                return cursors;
+            });
+
+            await fetchSummary();
         } catch (err) {
             if (err.response?.status === 403 || err.response?.status === 401) {
                 toast.error("Sesioni ka skaduar ose nuk jeni i autorizuar. Ju lutemi hyni përsëri.");
@@ -134,10 +130,36 @@ function EmployeeHome() {
         }
     };
 
+    // Runs an action through the bulk endpoint and patches the visible rows from the
+    // per-id outcomes, so only the summary needs to be reloaded
+    const decide = async (action, ids) => {
+        const res = await api.post('/employee/loans/bulk', { action, ids });
+        const { status, outcomes } = res.data;
+        setApplications(prev => prev.map(app =>
+            outcomes[app.id] === 'updated' ? { ...app, status } : app
+        ));
+        setSelectedIds(prev => prev.filter(id => !(id in outcomes)));
+        await fetchSummary();
+        return ids.filter(id => outcomes[id] === 'updated').length;
+    };
+
+    // Other employees' changes: status changes are patched in place, anything that
+    // shifts the list reloads the summary and, on the first page, the page itself
+    loanEventHandler.current = (event) => {
+        if (event.type === 'status_changed') {
+            setApplications(prev => prev.map(app =>
+                event.loanIds.includes(app.id) ? { ...app, status: event.status } : app
+            ));
+            fetchSummary().catch(() => {});
+        } else if (event.type === 'created' || event.type === 'deleted' || event.type === 'resync') {
+            if (currentPage === 1 || event.type === 'resync') fetchApplications(currentPage);
+            else fetchSummary().catch(() => {});
+        }
+    };
+
     const handleApprove = async (id) => {
         try {
-            await api.post(`/employee/loans/${id}/approve`);
-            await fetchApplications(); // Refresh data
+            if (await decide('approve', [id]) === 0) throw new Error('not allowed');
             toast.success("Aplikimi për kredi u aprovua me sukses!");
         } catch (err) {
             toast.error("Aplikimi për kredi nuk mund të aprovohej. Ju lutemi provoni përsëri.");
@@ -146,8 +168,7 @@ function EmployeeHome() {
 
     const handleReject = async (id) => {
         try {
-            await api.post(`/employee/loans/${id}/reject`);
-            await fetchApplications(); // Refresh data
+            if (await decide('reject', [id]) === 0) throw new Error('not allowed');
             toast.success("Aplikimi për kredi u refuzua me sukses!");
         } catch (err) {
             toast.error("Aplikimi për kredi nuk mund të refuzohej. Ju lutemi provoni përsëri.");
@@ -156,14 +177,37 @@ function EmployeeHome() {
 
     const handleEvaluate = async (id) => {
         try {
-            await api.post(`/employee/loans/${id}/evaluate`);
-            await fetchApplications(); // Refresh data
+            if (await decide('evaluate', [id]) === 0) throw new Error('not allowed');
             toast.success("Kërkesa për kredi u vendos për vlerësim.");
         } catch (err) {
             toast.error("Aplikimi për kredi nuk mund të fillonte vlerësimin. Ju lutemi provoni përsëri.");
         }
     };
 
+    const handleBulk = async (action) => {
+        if (selectedIds.length === 0) return;
+        const total = selectedIds.length;
+        try {
+            const updated = await decide(action, selectedIds);
+            if (updated === total) toast.success(`${updated} aplikime u përditësuan.`);
+            else toast.warning(`${updated} nga ${total} aplikime u përditësuan; të tjerat nuk e lejojnë këtë veprim.`);
+        } catch (err) {
+            toast.error("Veprimi në grup dështoi. Ju lutemi provoni përsëri.");
+        }
+    };
+
+    const isActionable = (app) => ['applied', 'evaluation'].includes(app.status?.toLowerCase());
+    const actionableIds = applications.filter(isActionable).map(app => app.id);
+    const allSelected = actionableIds.length > 0 && actionableIds.every(id => selectedIds.includes(id));
+
+    const toggleSelected = (id) => {
+        setSelectedIds(prev => prev.includes(id) ? prev.filter(x => x !== id) : [...prev, id]);
+    };
+
+    const toggleAllSelected = () => {
+        setSelectedIds(allSelected ? [] : actionableIds);
+    };
+
     const handleViewDetails = (id) => {
         navigate(`/employee/loans/${id}`);
     };
@@ -185,7 +229,8 @@ function EmployeeHome() {
     };
 
     const handlePageChange = (pageNumber) => {
-        setCurrentPage(pageNumber);
+        if (pageNumber < 1 || pageNumber > pageCursors.length) return;
+        fetchApplications(pageNumber);
     };
 
     const getStatusColor = (status) => {
@@ -815,9 +860,29 @@ function EmployeeHome() {
                            <h3 style={{ fontSize: '1.25rem', fontWeight: '600', color: isDarkMode ? '#f9fafb' : '#1e293b', margin: 0 }}>
                                Menaxhimi i Aplikimeve për Kredi
                            </h3>
-                           <div style={{ fontSize: '0.875rem', color: isDarkMode ? '#9ca3af' : '#64748b' }}>
-                               {applications.length} aplikime në total
-                           </div>
+                           {selectedIds.length > 0 ? (
+                               <div style={{ display: 'flex', alignItems: 'center', flexWrap: 'wrap' }}>
+                                   <span style={{ fontSize: '0.875rem', color: isDarkMode ? '#9ca3af' : '#64748b', marginRight: '0.75rem' }}>
+                                       {selectedIds.length} të zgjedhura
+                                   </span>
+                                   <button onClick={() => handleBulk('evaluate')} style={evaluateButtonStyle}>
+                                       <AlertCircle size={14} />
+                                       <span>Vlerëso</span>
+                                   </button>
+                                   <button onClick={() => handleBulk('approve')} style={approveButtonStyle}>
+                                       <Check size={14} />
+                                       <span>Aprovo</span>
+                                   </button>
+                                   <button onClick={() => handleBulk('reject')} style={rejectButtonStyle}>
+                                       <X size={14} />
+                                       <span>Refuzo</span>
+                                   </button>
+                               </div>
+                           ) : (
+                               <div style={{ fontSize: '0.875rem', color: isDarkMode ? '#9ca3af' : '#64748b' }}>
+                                   {summaryStats.total} aplikime në total
+                               </div>
+                           )}
                        </div>
 
                        {applications.length === 0 ? (
@@ -847,6 +912,14 @@ function EmployeeHome() {
                                    <table style={tableStyle}>
                                        <thead>
                                        <tr>
+                                           <th style={thStyle}>
+                                               <input
+                                                   type="checkbox"
+                                                   checked={allSelected}
+                                                   disabled={actionableIds.length === 0}
+                                                   onChange={toggleAllSelected}
+                                               />
+                                           </th>
                                            <th style={thStyle}>ID e Aplikimit</th>
                                            <th style={thStyle}>Emri i Klientit</th>
                                            <th style={thStyle}>Shuma</th>
@@ -863,6 +936,14 @@ function EmployeeHome() {
                                                onMouseEnter={(e) => e.currentTarget.style.backgroundColor = isDarkMode ? 'rgba(55, 65, 81, 0.3)' : 'rgba(248, 250, 252, 0.5)'}
                                                onMouseLeave={(e) => e.currentTarget.style.backgroundColor = 'transparent'}
                                            >
+                                               <td style={tdStyle}>
+                                                   <input
+                                                       type="checkbox"
+                                                       checked={selectedIds.includes(app.id)}
+                                                       disabled={!isActionable(app)}
+                                                       onChange={() => toggleSelected(app.id)}
+                                                   />
+                                               </td>
                                                <td style={tdStyle}>
                                                    <div style={{ display: 'flex', alignItems: 'center' }}>
                                                        <div style={{
@@ -994,7 +1075,7 @@ function EmployeeHome() {
                                {totalPages > 1 && (
                                    <div style={paginationStyle}>
                                        <div style={{ fontSize: '0.875rem', color: isDarkMode ? '#9ca3af' : '#64748b' }}>
-                                           Duke treguar {indexOfFirstApplication + 1}-{Math.min(indexOfLastApplication, applications.length)} nga {applications.length} aplikime
+                                           Duke treguar {indexOfFirstApplication + 1}-{indexOfLastApplication} nga {summaryStats.total} aplikime
                                        </div>
 
                                        <div style={{ display: 'flex', gap: '0.5rem', alignItems: 'center' }}>
@@ -1019,62 +1100,21 @@ function EmployeeHome() {
                                                <span>Para</span>
                                            </button>
 
-                                           {/* Page Numbers */}
-                                           <div style={{ display: 'flex', gap: '0.25rem' }}>
-                                               {Array.from({ length: Math.min(totalPages, 5) }, (_, i) => {
-                                                   let pageNum;
-                                                   if (totalPages <= 5) {
-                                                       pageNum = i + 1;
-                                                   } else if (currentPage <= 3) {
-                                                       pageNum = i + 1;
-                                                   } else if (currentPage >= totalPages - 2) {
-                                                       pageNum = totalPages - 4 + i;
-                                                   } else {
-                                                       pageNum = currentPage - 2 + i;
-                                                   }
-
-                                                   const isActive = pageNum === currentPage;
-
-                                                   return (
-                                                       <button
-                                                           key={pageNum}
-                                                           onClick={() => handlePageChange(pageNum)}
-                                                           style={{
-                                                               ...paginationButtonStyle,
-                                                               backgroundColor: isActive ? '#1e40af' : (isDarkMode ? 'rgba(55, 65, 81, 0.8)' : 'white'),
-                                                               color: isActive ? 'white' : (isDarkMode ? '#f9fafb' : '#475569'),
-                                                               borderColor: isActive ? '#1e40af' : (isDarkMode ? 'rgba(75, 85, 99, 0.5)' : '#cbd5e1'),
-                                                               minWidth: '40px',
-                                                               justifyContent: 'center'
-                                                           }}
-                                                           onMouseEnter={(e) => {
-                                                               if (!isActive) {
-                                                                   e.currentTarget.style.backgroundColor = isDarkMode ? 'rgba(75, 85, 99, 0.8)' : '#f8fafc';
-                                                               }
-                                                           }}
-                                                           onMouseLeave={(e) => {
-                                                               if (!isActive) {
-                                                                   e.currentTarget.style.backgroundColor = isDarkMode ? 'rgba(55, 65, 81, 0.8)' : 'white';
-                                                               }
-                                                           }}
-                                                       >
-                                                           {pageNum}
-                                                       </button>
-                                                   );
-                                               })}
+                                           <div style={{ fontSize: '0.875rem', color: isDarkMode ? '#f9fafb' : '#475569', minWidth: '80px', textAlign: 'center' }}>
+                                               {currentPage} / {totalPages}
                                            </div>
 
                                            <button
                                                onClick={() => handlePageChange(currentPage + 1)}
-                                               disabled={currentPage === totalPages}
-                                               style={currentPage === totalPages ? paginationButtonDisabledStyle : paginationButtonStyle}
+                                               disabled={!hasNextPage}
+                                               style={!hasNextPage ? paginationButtonDisabledStyle : paginationButtonStyle}
                                                onMouseEnter={(e) => {
-                                                   if (currentPage !== totalPages) {
+                                                   if (hasNextPage) {
                                                        e.currentTarget.style.backgroundColor = isDarkMode ? 'rgba(75, 85, 99, 0.8)' : '#f8fafc';
                                                    }
                                                }}
                                                onMouseLeave={(e) => {
-                                                   if (currentPage !== totalPages) {
+                                                   if (hasNextPage) {
                                                        e.currentTarget.style.backgroundColor = isDarkMode ? 'rgba(55, 65, 81, 0.8)' : 'white';
                                                    }
                                                }}
@@ -16,12 +16,19 @@ function Reports() {
         averageAmount: 0,
         totalVolume: 0
     });
+    const [chartData, setChartData] = useState({
+        trendsData: [],
+        statusData: [],
+        typeDistribution: [],
+        amountRangeData: []
+    });
     const [user, setUser] = useState({ name: '', loginTime: '' });
     const [loading, setLoading] = useState(true);
     const [dateRange, setDateRange] = useState('month');
     const [reportType, setReportType] = useState('all');
     const [currentPage, setCurrentPage] = useState(1);
     const [reportsPerPage] = useState(5);
+    const [pageCursors, setPageCursors] = useState([null]);
     const navigate = useNavigate();
     const [isDarkMode, setIsDarkMode] = useState(() => {
         const saved = localStorage.getItem('isDarkMode');
@@ -38,11 +45,9 @@ function Reports() {
         fetchReportsData();
     }, [dateRange, reportType]);
 
-    // Pagination calculations
-    const indexOfLastReport = currentPage * reportsPerPage;
-    const indexOfFirstReport = indexOfLastReport - reportsPerPage;
-    const currentReports = reports.slice(indexOfFirstReport, indexOfLastReport);
-    const totalPages = Math.ceil(reports.length / reportsPerPage);
+    // Pagination calculations (the server returns one filtered page at a time)
+    const currentReports = reports;
+    const totalPages = Math.max(1, Math.ceil(summaryStats.totalApplications / reportsPerPage));
 
     const fetchReportsData = async () => {
         try {
@@ -56,21 +61,16 @@ function Reports() {
                 loginTime: lastLoginTime ? new Date(lastLoginTime).toLocaleString() : '-'
             });
 
-            // Fetch loan applications for reports
-            const loansRes = await api.get('/employee/loans');
-            const applications = loansRes.data;
-
-            // Filter applications based on date range and type
-           const filteredApplications = filterApplications(applications, dateRange, reportType);
-
-           // Sort by ID (descending)
-           const sortedApplications = filteredApplications.sort((a, b) => b.id - a.id);
-
-           setReports(sortedApplications);
-
-            // Calculate summary statistics
-            const stats = calculateSummaryStats(filteredApplications);
+            // Aggregates are computed by the server for the selected filters
+            const reportRes = await api.get('/employee/reports', {
+                params: { dateRange, status: reportType }
+            });
+            const { trendsData, typeDistribution, amountRangeData, ...stats } = reportRes.data;
             setSummaryStats(stats);
+            setChartData(prepareChartData(reportRes.data));
+
+            // First page of the detailed table, filtered by the server
+            await fetchReportPage(1, [null]);
 
         } catch (err) {
             if (err.response?.status === 401 || err.response?.status === 403) {
@@ -83,70 +83,45 @@ function Reports() {
         }
     };
 
-    const filterApplications = (applications, dateRange, reportType) => {
-        let filtered = [...applications];
-
-        if (dateRange !== 'all') {
-            const now = new Date();
-            const startDate = new Date();
-
-            switch (dateRange) {
-                case 'week':
-                    startDate.setDate(now.getDate() - 7);
-                    break;
-                case 'month':
-                    startDate.setMonth(now.getMonth() - 1);
-                    break;
-                case 'quarter':
-                    startDate.setMonth(now.getMonth() - 3);
-                    break;
-                case 'year':
-                    startDate.setFullYear(now.getFullYear() - 1);
-                    break;
-                default:
-                    startDate.setMonth(now.getMonth() - 1);
+    // Loads one keyset page; cursors[n - 1] holds the afterId for page n
+    const fetchReportPage = async (page, cursors = pageCursors) => {
+        const res = await api.get('/employee/loans', {
+            params: {
+                status: reportType !== 'all' ? reportType : undefined,
+                createdFrom: reportStartDate(dateRange),
+                afterId: cursors[page - 1] ?? undefined,
+                size: reportsPerPage
             }
-
-            filtered = filtered.filter(app => {
-                const appDate = new Date(app.createdAt);
-                return appDate >= startDate;
-            });
-        }
-
-        if (reportType !== 'all') {
-            filtered = filtered.filter(app => app.status?.toLowerCase() === reportType);
-        }
-
-        return filtered;
+        });
+        setReports(res.data.items);
+        setCurrentPage(page);
+        const nextCursors = cursors.slice(0, page);
+        if (res.data.nextCursor != null) nextCursors.push(res.data.nextCursor);
+        setPageCursors(nextCursors);
     };
 
-    const calculateSummaryStats = (applications) => {
-        const total = applications.length;
-        const approved = applications.filter(app => app.status?.toLowerCase() === 'approved').length;
-        const rejected = applications.filter(app => app.status?.toLowerCase() === 'rejected').length;
-        const pending = applications.filter(app =>
-            app.status?.toLowerCase() === 'applied' ||
-            app.status?.toLowerCase() === 'evaluation'
-        ).length;
-
-        const approvalRate = total > 0 ? (approved / total * 100).toFixed(1) : 0;
-        const totalVolume = applications.reduce((sum, app) => {
-          const amount = parseFloat(app.requestedAmount) || 0;
-          const adjustedAmount = app.currency === "EUR" ? amount * 100 : amount;
-          return sum + adjustedAmount;
-        }, 0);
-
-        const averageAmount = total > 0 ? (totalVolume / total).toFixed(2) : 0;
+    // yyyy-MM-dd lower bound matching the server's report date ranges
+    const reportStartDate = (dateRange) => {
+        if (dateRange === 'all') return undefined;
+        const startDate = new Date();
+
+        switch (dateRange) {
+            case 'week':
+                startDate.setDate(startDate.getDate() - 7);
+                break;
+            case 'quarter':
+                startDate.setMonth(startDate.getMonth() - 3);
+                break;
+            case 'year':
+                startDate.setFullYear(startDate.getFullYear() - 1);
+                break;
+            default:
+                startDate.setMonth(startDate.getMonth() - 1);
+        }
 
-        return {
-            totalApplications: total,
-            totalApproved: approved,
-            totalRejected: rejected,
-            totalPending: pending,
-            approvalRate: parseFloat(approvalRate),
-            averageAmount: parseFloat(averageAmount),
-            totalVolume: totalVolume
-        };
+        const month = String(startDate.getMonth() + 1).padStart(2, '0');
+        const day = String(startDate.getDate()).padStart(2, '0');
+        return `${startDate.getFullYear()}-${month}-${day}`;
     };
 
     const handleLogout = async () => {
@@ -164,37 +139,34 @@ function Reports() {
         }
     };
 
-    const handlePageChange = (pageNumber) => {
-        setCurrentPage(pageNumber);
-    };
-
-    const handleExportReport = () => {
-        // Export functionality
-        const csvContent = generateCSVReport();
-        const blob = new Blob([csvContent], { type: 'text/csv;charset=utf-8;' });
-        const link = document.createElement('a');
-        const url = URL.createObjectURL(blob);
-        link.setAttribute('href', url);
-        link.setAttribute('download', `loan_reports_${dateRange}_${Date.now()}.csv`);
-        link.style.visibility = 'hidden';
-        document.body.appendChild(link);
-        link.click();
-        document.body.removeChild(link);
+    const handlePageChange = async (pageNumber) => {
+        if (pageNumber < 1 || pageNumber > pageCursors.length) return;
+        try {
+            await fetchReportPage(pageNumber);
+        } catch (err) {
+            toast.error("Faqja nuk mund të ngarkohej. Ju lutemi provoni përsëri.");
+        }
     };
 
-    const generateCSVReport = () => {
-        const headers = ['ID e Aplikimit', 'Emri i Klientit', 'Shuma', 'Kohëzgjatja', 'Lloji', 'Statusi', 'Data'];
-        const rows = reports.map(app => [
-            app.id,
-            app.firstName + " " + app.lastName || app.username || 'N/A',
-            `${app.requestedAmount} ${app.currency || 'N/A'}`,
-            `${app.durationMonths} muaj`,
-            app.loanType,
-            app.status,
-            new Date(app.createdAt).toLocaleDateString()
-        ]);
-
-        return [headers, ...rows].map(row => row.join(',')).join('\n');
+    const handleExportReport = async () => {
+        // The server streams the CSV for the current filters
+        try {
+            const res = await api.get('/employee/reports/export', {
+                params: { dateRange, status: reportType },
+                responseType: 'blob'
+            });
+            const link = document.createElement('a');
+            const url = URL.createObjectURL(res.data);
+            link.setAttribute('href', url);
+            link.setAttribute('download', `loan_reports_${dateRange}_${Date.now()}.csv`);
+            link.style.visibility = 'hidden';
+            document.body.appendChild(link);
+            link.click();
+            document.body.removeChild(link);
+            URL.revokeObjectURL(url);
+        } catch (err) {
+            toast.error("Raporti nuk mund të eksportohej. Ju lutemi provoni përsëri.");
+        }
     };
 
     const getStatusColor = (status) => {
@@ -222,85 +194,26 @@ function Reports() {
         return <Minus size={16} color="#64748b" />;
     };
 
-    const prepareChartData = (applications) => {
-        // Monthly trends data
-        const monthlyData = {};
-        const last6Months = [];
-        const now = new Date();
-
-        // Generate last 6 months
-        for (let i = 5; i >= 0; i--) {
-            const date = new Date(now.getFullYear(), now.getMonth() - i, 1);
-            const monthKey = `${date.getFullYear()}-${String(date.getMonth() + 1).padStart(2, '0')}`;
-            const monthName = date.toLocaleDateString('en-US', { month: 'short', year: 'numeric' });
-            last6Months.push({ key: monthKey, name: monthName });
-            monthlyData[monthKey] = { name: monthName, applications: 0, approved: 0, rejected: 0, volume: 0 };
-        }
-
-        // Process applications
-        applications.forEach(app => {
-            const appDate = new Date(app.createdAt);
-            const monthKey = appDate.toISOString().slice(0, 7);
-
-            if (monthlyData[monthKey]) {
-                monthlyData[monthKey].applications++;
-                const rawAmount = parseFloat(app.requestedAmount) || 0;
-                const amount = app.currency === 'EUR' ? rawAmount * 100 : rawAmount;
-                monthlyData[monthKey].volume += amount;
-
-                if (app.status?.toLowerCase() === 'approved') {
-                    monthlyData[monthKey].approved++;
-                } else if (app.status?.toLowerCase() === 'rejected') {
-                    monthlyData[monthKey].rejected++;
-                }
-            }
+    const prepareChartData = (report) => {
+        // Label the server's yyyy-MM months for the charts
+        const trendsData = report.trendsData.map(month => {
+            const [year, monthIndex] = month.month.split('-').map(Number);
+            const name = new Date(year, monthIndex - 1, 1).toLocaleDateString('en-US', { month: 'short', year: 'numeric' });
+            return { ...month, name };
         });
 
-        const trendsData = last6Months.map(month => monthlyData[month.key]);
-
         // Status distribution data
         const statusData = [
-            { name: 'Aprovuar', value: applications.filter(app => app.status?.toLowerCase() === 'approved').length, color: '#059669' },
-            { name: 'Refuzuar', value: applications.filter(app => app.status?.toLowerCase() === 'rejected').length, color: '#dc2626' },
-            { name: 'Në pritje', value: applications.filter(app => app.status?.toLowerCase() === 'applied' || app.status?.toLowerCase() === 'evaluation').length, color: '#d97706' }
+            { name: 'Aprovuar', value: report.totalApproved, color: '#059669' },
+            { name: 'Refuzuar', value: report.totalRejected, color: '#dc2626' },
+            { name: 'Në pritje', value: report.totalPending, color: '#d97706' }
         ];
 
-        // Loan type distribution
-        const loanTypeData = {};
-        applications.forEach(app => {
-            const type = app.loanType || 'Other';
-            loanTypeData[type] = (loanTypeData[type] || 0) + 1;
-        });
-
-        const typeDistribution = Object.entries(loanTypeData).map(([name, value]) => ({ name, value }));
-
-        // Amount ranges
-        const amountRanges = {
-            '0-20,000 ALL': 0,
-            '20,000-100,000 ALL': 0,
-            '100,000-300,000 ALL': 0,
-            '300,000-1,000,000 ALL': 0,
-            '1,000,000+ ALL': 0
-        };
-
-        applications.forEach(app => {
-            const rawAmount = parseFloat(app.requestedAmount) || 0;
-            const amount = app.currency === 'EUR' ? rawAmount * 100 : rawAmount;
-
-            if (amount <= 20000) amountRanges['0-20,000 ALL']++;
-            else if (amount <= 100000) amountRanges['20,000-100,000 ALL']++;
-            else if (amount <= 300000) amountRanges['100,000-300,000 ALL']++;
-            else if (amount <= 1000000) amountRanges['300,000-1,000,000 ALL']++;
-            else amountRanges['1,000,000+ ALL']++;
-        });
-
-        const amountRangeData = Object.entries(amountRanges).map(([name, value]) => ({ name, value }));
-
         return {
             trendsData,
             statusData,
-            typeDistribution,
-            amountRangeData
+            typeDistribution: report.typeDistribution,
+            amountRangeData: report.amountRangeData
         };
     };
 
@@ -946,7 +859,7 @@ function Reports() {
                                         Tendencat Mujore të Aplikimeve
                                     </h4>
                                     <ResponsiveContainer width="100%" height={300}>
-                                        <AreaChart data={prepareChartData(reports).trendsData}>
+                                        <AreaChart data={chartData.trendsData}>
                                             <CartesianGrid strokeDasharray="3 3" stroke={isDarkMode ? '#374151' : '#e2e8f0'} />
                                             <XAxis
                                                 dataKey="name"
@@ -1008,7 +921,7 @@ function Reports() {
                                     <ResponsiveContainer width="100%" height={300}>
                                         <PieChart>
                                             <Pie
-                                                data={prepareChartData(reports).statusData}
+                                                data={chartData.statusData}
                                                 cx="50%"
                                                 cy="50%"
                                                 labelLine={false}
@@ -1017,7 +930,7 @@ function Reports() {
                                                 fill="#8884d8"
                                                 dataKey="value"
                                             >
-                                                {prepareChartData(reports).statusData.map((entry, index) => (
+                                                {chartData.statusData.map((entry, index) => (
                                                     <Cell key={`cell-${index}`} fill={entry.color} />
                                                 ))}
                                             </Pie>
@@ -1063,7 +976,7 @@ function Reports() {
                                         Shpërndarja sipas Llojit të Kredisë
                                     </h4>
                                     <ResponsiveContainer width="100%" height={300}>
-                                        <BarChart data={prepareChartData(reports).typeDistribution}>
+                                        <BarChart data={chartData.typeDistribution}>
                                             <CartesianGrid strokeDasharray="3 3" stroke={isDarkMode ? '#374151' : '#e2e8f0'} />
                                             <XAxis
                                                 dataKey="name"
@@ -1107,7 +1020,7 @@ function Reports() {
                                         Intervalet e Shumës së Aplikimeve për Kredi
                                     </h4>
                                     <ResponsiveContainer width="100%" height={300}>
-                                        <BarChart data={prepareChartData(reports).amountRangeData}>
+                                        <BarChart data={chartData.amountRangeData}>
                                             <CartesianGrid strokeDasharray="3 3" stroke={isDarkMode ? '#374151' : '#e2e8f0'} />
                                             <XAxis
                                                 dataKey="name"
@@ -1152,7 +1065,7 @@ function Reports() {
                                         Tendencat Mujore të Shumës Totale të Aplikimeve për Kredi
                                     </h4>
                                     <ResponsiveContainer width="100%" height={300}>
-                                        <LineChart data={prepareChartData(reports).trendsData}>
+                                        <LineChart data={chartData.trendsData}>
                                             <CartesianGrid strokeDasharray="3 3" stroke={isDarkMode ? '#374151' : '#e2e8f0'} />
                                             <XAxis
                                                 dataKey="name"
@@ -1254,7 +1167,7 @@ function Reports() {
                                 Raporte të detajuara
                             </h3>
                             <div style={{ fontSize: '0.875rem', color: isDarkMode ? '#9ca3af' : '#64748b' }}>
-                                {reports.length} aplikime u gjetën
+                                {summaryStats.totalApplications} aplikime u gjetën
                             </div>
                         </div>
 
@@ -1347,8 +1260,8 @@ function Reports() {
                                     </div>
                                     <button
                                         onClick={() => handlePageChange(currentPage + 1)}
-                                        style={currentPage === totalPages ? paginationButtonDisabledStyle : paginationButtonStyle}
-                                        disabled={currentPage === totalPages}
+                                        style={pageCursors.length <= currentPage ? paginationButtonDisabledStyle : paginationButtonStyle}
+                                        disabled={pageCursors.length <= currentPage}
                                     >
                                         <span>Pas</span>
                                         <ChevronRight size={16} />
@@ -0,0 +1,50 @@
+// api/loanEvents.js
+// EventSource can't send the Authorization header, so the SSE stream is read with fetch.
+
+const RECONNECT_MS = 3000;
+
+// onReconnect runs once a dropped stream is back, since events may have been missed meanwhile
+export function subscribeLoanEvents(onEvent, onReconnect) {
+    const controller = new AbortController();
+    let connected = false;
+
+    const connect = async () => {
+        try {
+            const res = await fetch('/api/employee/loans/events', {
+                headers: {
+                    Authorization: `Bearer ${localStorage.getItem('token')}`,
+                    Accept: 'text/event-stream'
+                },
+                signal: controller.signal
+            });
+            if (!res.ok || !res.body) throw new Error(`HTTP ${res.status}`);
+            if (connected && onReconnect) onReconnect();
+            connected = true;
+
+            const reader = res.body.pipeThrough(new TextDecoderStream()).getReader();
+            let buffer = '';
+            for (;;) {
+                const { value, done } = await reader.read();
+                if (done) break;
+                buffer += value.replace(/\r/g, '');
+                let end;
+                while ((end = buffer.indexOf('\n\n')) >= 0) {
+                    const block = buffer.slice(0, end);
+                    buffer = buffer.slice(end + 2);
+                    const data = block.split('\n')
+                        .filter(line => line.startsWith('data:'))
+                        .map(line => line.slice(5).trimStart())
+                        .join('\n');
+                    if (data) onEvent(JSON.parse(data));
+                }
+            }
+        } catch (err) {
+            if (controller.signal.aborted) return;
+        }
+        // The server closed or dropped us (e.g. too slow); try again shortly
+        setTimeout(connect, RECONNECT_MS);
+    };
+
+    connect();
+    return () => controller.abort();
+}
@@ -0,0 +1,99 @@
+package com.example.demo.benchmarks;
+
+import com.example.demo.dto.CreateLoanApplicationDTO;
+import com.example.demo.dto.IncomeDTO;
+import com.example.demo.model.Income;
+import com.example.demo.model.LoanApplication;
+import com.example.demo.model.LoanStatus;
+import com.example.demo.model.User;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Deterministic fixtures shared by the benchmarks. Every generator takes a seed so that
+ * runs on different machines measure exactly the same object graphs.
+ */
+public final class BenchmarkData {
+
+    public static final long SEED = 42L;
+
+    private static final String[] LOAN_TYPES = {"Personal", "Mortgage", "Auto", "Business"};
+    private static final String[] CURRENCIES = {"EUR", "ALL", "USD"};
+    private static final String[] INCOME_TYPES = {"Paga", "Qeraja", "Biznesi"};
+    private static final LocalDateTime BASE_TIME = LocalDateTime.of(2025, 1, 1, 9, 0);
+
+    private BenchmarkData() {
+    }
+
+    public static User user(long id) {
+        User user = new User();
+        user.setId(id);
+        user.setUsername("client" + id);
+        user.setRole("client");
+        user.setFirstName("Arben");
+        user.setLastName("Hoxha");
+        user.setEmail("client" + id + "@example.com");
+        return user;
+    }
+
+    public static LoanApplication loan(long id, int incomeCount, Random random) {
+        LoanApplication loan = new LoanApplication();
+        loan.setId(id);
+        loan.setUser(user(id % 500 + 1));
+        loan.setFatherName("Petrit");
+        loan.setPhoneNumber("+35569" + (1_000_000 + random.nextInt(8_999_999)));
+        loan.setBirthDate(LocalDate.of(1970 + random.nextInt(35), 1 + random.nextInt(12), 1 + random.nextInt(28)));
+        loan.setBirthPlace("Tiranë");
+        loan.setEducationLevel("Bachelor");
+        loan.setMaritalStatus("I martuar");
+        loan.setRequestedAmount(1_000 + random.nextInt(99_000) * 1.0);
+        loan.setCurrency(CURRENCIES[random.nextInt(CURRENCIES.length)]);
+        loan.setDurationMonths(12 * (1 + random.nextInt(10)));
+        loan.setLoanType(LOAN_TYPES[random.nextInt(LOAN_TYPES.length)]);
+        loan.setStatus(LoanStatus.values()[random.nextInt(LoanStatus.values().length)]);
+        loan.setCreatedAt(BASE_TIME.plusMinutes(id * 7));
+
+        List<Income> incomes = new ArrayList<>(incomeCount);
+        for (int i = 0; i < incomeCount; i++) {
+            Income income = new Income();
+            income.setId(id * 10 + i);
+            income.setIncomeType(INCOME_TYPES[i % INCOME_TYPES.length]);
+            income.setAmount(300 + random.nextInt(2_700) * 1.0);
+            income.setCurrency(loan.getCurrency());
+            income.setSince(LocalDate.of(2015 + random.nextInt(10), 1 + random.nextInt(12), 1));
+            income.setLoanApplication(loan);
+            incomes.add(income);
+        }
+        loan.setIncomes(incomes);
+        return loan;
+    }
+
+    public static List<LoanApplication> loans(int count, int incomesPerLoan, long seed) {
+        Random random = new Random(seed);
+        List<LoanApplication> loans = new ArrayList<>(count);
+        for (int i = 1; i <= count; i++) {
+            loans.add(loan(i, incomesPerLoan, random));
+        }
+        return loans;
+    }
+
+    public static CreateLoanApplicationDTO createRequest(int incomeCount, long seed) {
+        Random random = new Random(seed);
+        List<IncomeDTO> incomes = new ArrayList<>(incomeCount);
+        for (int i = 0; i < incomeCount; i++) {
+            IncomeDTO income = new IncomeDTO();
+            income.setIncomeType(INCOME_TYPES[i % INCOME_TYPES.length]);
+            income.setAmount(300 + random.nextInt(2_700) * 1.0);
+            income.setCurrency("EUR");
+            income.setSince(LocalDate.of(2015 + random.nextInt(10), 1 + random.nextInt(12), 1));
+            incomes.add(income);
+        }
+        return new CreateLoanApplicationDTO("Petrit", LocalDate.of(1988, 5, 17), "Tiranë",
+                "client@example.com", "+355691234567", "Bachelor", "I martuar",
+                25_000.0, "EUR", 60, "Personal", incomes, null);
+    }
+}
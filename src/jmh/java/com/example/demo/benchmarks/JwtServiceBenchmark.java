@@ -0,0 +1,49 @@
+package com.example.demo.benchmarks;
+
+import com.example.demo.config.JwtProperties;
+import com.example.demo.service.JwtService;
+import io.jsonwebtoken.Claims;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class JwtServiceBenchmark {
+
+    // Fixed benchmark-only key, never used outside this suite
+    private static final String KEY = "q5cV3p1z8oR0mB6tX2yN4wK7jH9gF1dS3aL5eU8iO0c=";
+
+    private JwtService jwtService;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        JwtProperties properties = new JwtProperties();
+        properties.setActiveKid("bench");
+        properties.setKeys(Map.of("bench", KEY));
+        jwtService = new JwtService(properties);
+        token = jwtService.generateToken("client1", "client");
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return jwtService.generateToken("client1", "client");
+    }
+
+    // What JwtAuthFilter does once per authenticated request
+    @Benchmark
+    public Claims parseClaims() {
+        return jwtService.parseClaims(token);
+    }
+
+    @Benchmark
+    public boolean isTokenValid() {
+        return jwtService.isTokenValid(token);
+    }
+}
@@ -0,0 +1,45 @@
+package com.example.demo.benchmarks;
+
+import com.example.demo.dto.LoanApplicationDTO;
+import com.example.demo.mapper.LoanMapper;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serialization cost of the loan list payloads, using an ObjectMapper configured the
+ * same way Spring MVC builds the one behind the REST controllers.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class LoanJsonBenchmark {
+
+    @Param({"20", "100"})
+    private int size;
+
+    private ObjectWriter writer;
+    private List<LoanApplicationDTO> dtos;
+
+    @Setup
+    public void setUp() {
+        ObjectMapper mapper = Jackson2ObjectMapperBuilder.json().build();
+        writer = mapper.writerFor(mapper.getTypeFactory()
+                .constructCollectionType(List.class, LoanApplicationDTO.class));
+        dtos = BenchmarkData.loans(size, 3, BenchmarkData.SEED).stream()
+                .map(LoanMapper::toDTO)
+                .toList();
+    }
+
+    @Benchmark
+    public byte[] serialize() throws Exception {
+        return writer.writeValueAsBytes(dtos);
+    }
+}
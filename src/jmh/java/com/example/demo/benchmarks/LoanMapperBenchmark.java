@@ -0,0 +1,58 @@
+package com.example.demo.benchmarks;
+
+import com.example.demo.dto.CreateLoanApplicationDTO;
+import com.example.demo.dto.LoanApplicationDTO;
+import com.example.demo.mapper.LoanMapper;
+import com.example.demo.model.LoanApplication;
+import com.example.demo.model.User;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class LoanMapperBenchmark {
+
+    @Param({"0", "3", "10"})
+    private int incomes;
+
+    private LoanApplication loan;
+    private List<LoanApplication> page;
+    private CreateLoanApplicationDTO request;
+    private User user;
+
+    @Setup
+    public void setUp() {
+        loan = BenchmarkData.loan(1, incomes, new Random(BenchmarkData.SEED));
+        page = BenchmarkData.loans(20, incomes, BenchmarkData.SEED);
+        request = BenchmarkData.createRequest(incomes, BenchmarkData.SEED);
+        user = BenchmarkData.user(1);
+    }
+
+    @Benchmark
+    public LoanApplicationDTO toDTO() {
+        return LoanMapper.toDTO(loan);
+    }
+
+    // One employee list page worth of mapping
+    @Benchmark
+    public List<LoanApplicationDTO> toDTOPage() {
+        List<LoanApplicationDTO> dtos = new ArrayList<>(page.size());
+        for (LoanApplication l : page) {
+            dtos.add(LoanMapper.toDTO(l));
+        }
+        return dtos;
+    }
+
+    @Benchmark
+    public LoanApplication toEntity() {
+        return LoanMapper.toEntity(request, user);
+    }
+}
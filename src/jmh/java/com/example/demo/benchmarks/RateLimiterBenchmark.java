@@ -0,0 +1,52 @@
+package com.example.demo.benchmarks;
+
+import com.example.demo.config.RateLimitProperties;
+import com.example.demo.security.RateLimiter;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * tryAcquire under contention: every thread hammering one key (a single attacker IP) versus
+ * threads spread over many keys (ordinary login traffic from different clients).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@Threads(8)
+public class RateLimiterBenchmark {
+
+    @Param({"1", "1000", "100000"})
+    private int distinctKeys;
+
+    private RateLimiter rateLimiter;
+    private String[] keys;
+
+    @Setup
+    public void setUp() {
+        RateLimitProperties.Policy policy = new RateLimitProperties.Policy();
+        policy.setCapacity(20);
+        policy.setRefillPeriod(Duration.ofSeconds(3));
+
+        RateLimitProperties properties = new RateLimitProperties();
+        properties.setPolicies(Map.of(RateLimiter.LOGIN_IP, policy));
+        rateLimiter = new RateLimiter(properties);
+
+        keys = new String[distinctKeys];
+        for (int i = 0; i < distinctKeys; i++) {
+            keys[i] = "10.0." + (i >> 8) + "." + (i & 0xff);
+        }
+    }
+
+    @Benchmark
+    public boolean tryAcquire() {
+        String key = keys[ThreadLocalRandom.current().nextInt(keys.length)];
+        return rateLimiter.tryAcquire(RateLimiter.LOGIN_IP, key);
+    }
+}
@@ -0,0 +1,76 @@
+package com.example.demo.service.impl;
+
+import com.example.demo.config.LoanChangesProperties;
+import com.example.demo.model.LoanStatus;
+import com.example.demo.repository.LoanApplicationRepository;
+import com.example.demo.repository.LoanDailyStatsRepository;
+import com.example.demo.repository.LoanStatusHistoryRepository;
+import com.example.demo.repository.LoanTombstoneRepository;
+import org.mockito.Mockito;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Employee summary aggregation. Lives in the service package because the LoanServiceImpl
+ * constructor is package-private; repositories are stubbed since only the in-memory
+ * counters are on the measured path.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class LoanStatisticsBenchmark {
+
+    private LoanServiceImpl loanService;
+    private LoanStatusCounters counters;
+
+    @Setup
+    public void setUp() {
+        LoanApplicationRepository loanRepo = Mockito.mock(LoanApplicationRepository.class);
+        Mockito.when(loanRepo.countByStatus()).thenReturn(List.of(
+                count(LoanStatus.APPLIED, 12_000L),
+                count(LoanStatus.EVALUATION, 3_500L),
+                count(LoanStatus.APPROVED, 40_000L),
+                count(LoanStatus.REJECTED, 9_000L)));
+
+        counters = new LoanStatusCounters(loanRepo);
+        counters.reconcile();
+        loanService = new LoanServiceImpl(loanRepo, Mockito.mock(LoanStatusHistoryRepository.class), counters,
+                Mockito.mock(ApplicationEventPublisher.class), Mockito.mock(LoanTombstoneRepository.class),
+                new LoanChangesProperties(), Mockito.mock(LoanDailyRollup.class),
+                Mockito.mock(LoanDailyStatsRepository.class));
+    }
+
+    @Benchmark
+    public Map<String, Long> getLoanStatistics() {
+        return loanService.getLoanStatistics();
+    }
+
+    // Write side: every approve/reject/evaluate swaps in a new snapshot
+    @Benchmark
+    @Threads(4)
+    public void transition() {
+        counters.transitioned(LoanStatus.APPLIED, LoanStatus.EVALUATION);
+        counters.transitioned(LoanStatus.EVALUATION, LoanStatus.APPLIED);
+    }
+
+    private static LoanApplicationRepository.StatusCount count(LoanStatus status, Long total) {
+        return new LoanApplicationRepository.StatusCount() {
+            @Override
+            public LoanStatus getStatus() {
+                return status;
+            }
+
+            @Override
+            public Long getTotal() {
+                return total;
+            }
+        };
+    }
+}
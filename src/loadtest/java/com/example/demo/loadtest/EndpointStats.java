@@ -0,0 +1,100 @@
+package com.example.demo.loadtest;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latency histograms and outcome counters per operation. Recorders are lock-free for the
+ * writers; reset() swaps them out so warmup samples never reach the final report.
+ */
+public class EndpointStats {
+
+    private static final double NANOS_PER_MILLI = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private final Map<Operation, Entry> entries = new EnumMap<>(Operation.class);
+
+    public EndpointStats() {
+        for (Operation op : Operation.values()) entries.put(op, new Entry());
+    }
+
+    public void record(Operation op, int status, long latencyNanos, long bodyBytes) {
+        Entry entry = entries.get(op);
+        entry.latency.recordValue(latencyNanos);
+        entry.bodyBytes.add(bodyBytes);
+        if (status == 304) entry.notModified.increment();
+        else if (status >= 500) entry.serverErrors.increment();
+        else if (status >= 400) entry.clientErrors.increment();
+    }
+
+    public void failed(Operation op) {
+        entries.get(op).failures.increment();
+    }
+
+    public void reset() {
+        for (Entry entry : entries.values()) {
+            entry.latency.reset();
+            entry.clientErrors.reset();
+            entry.serverErrors.reset();
+            entry.failures.reset();
+            entry.notModified.reset();
+            entry.bodyBytes.reset();
+        }
+    }
+
+    public void report(Duration elapsed, Path output, PrintStream out) throws IOException {
+        Files.createDirectories(output);
+        double seconds = elapsed.toNanos() / 1e9;
+        long totalCount = 0;
+
+        out.printf("%n%-40s %9s %9s %6s %6s %6s %6s %9s %9s %9s %9s %9s %9s%n",
+                "endpoint", "count", "req/s", "304", "4xx", "5xx", "fail", "B/resp", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms");
+        for (Map.Entry<Operation, Entry> e : entries.entrySet()) {
+            Operation op = e.getKey();
+            Entry entry = e.getValue();
+            Histogram histogram = entry.latency.getIntervalHistogram();
+            long count = histogram.getTotalCount();
+            totalCount += count;
+            if (count == 0 && entry.failures.sum() == 0) continue;
+
+            // Body bytes as received, i.e. after compression; headers are not counted
+            out.printf("%-40s %9d %9.1f %6d %6d %6d %6d %9d %9.2f %9.2f %9.2f %9.2f %9.2f%n",
+                    op.getLabel(), count, count / seconds, entry.notModified.sum(),
+                    entry.clientErrors.sum(), entry.serverErrors.sum(), entry.failures.sum(),
+                    count > 0 ? entry.bodyBytes.sum() / count : 0,
+                    millis(histogram.getValueAtPercentile(50)),
+                    millis(histogram.getValueAtPercentile(90)),
+                    millis(histogram.getValueAtPercentile(99)),
+                    millis(histogram.getValueAtPercentile(99.9)),
+                    millis(histogram.getMaxValue()));
+
+            try (PrintStream file = new PrintStream(Files.newOutputStream(output.resolve(op.name().toLowerCase() + ".hgrm")))) {
+                histogram.outputPercentileDistribution(file, NANOS_PER_MILLI);
+            }
+        }
+        out.printf("%nTotal: %d requests in %.1fs, %.1f req/s. Percentile distributions written to %s%n",
+                totalCount, seconds, totalCount / seconds, output.toAbsolutePath());
+    }
+
+    private static double millis(long nanos) {
+        return nanos / NANOS_PER_MILLI;
+    }
+
+    private static class Entry {
+        private final Recorder latency = new Recorder(3);
+        private final LongAdder clientErrors = new LongAdder();
+        private final LongAdder serverErrors = new LongAdder();
+        private final LongAdder failures = new LongAdder();
+        private final LongAdder notModified = new LongAdder();
+        private final LongAdder bodyBytes = new LongAdder();
+    }
+}
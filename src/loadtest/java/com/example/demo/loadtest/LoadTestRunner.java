@@ -0,0 +1,305 @@
+package com.example.demo.loadtest;
+
+import com.example.demo.DemoApplication;
+import com.example.demo.model.User;
+import com.example.demo.service.UserService;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Boots the application on an embedded database and drives a weighted mix of API calls
+ * against it, reporting latency percentiles and throughput per endpoint.
+ *
+ * Closed model (default): a fixed number of workers each issue requests back to back.
+ * Open model (rate=N): requests start on a fixed schedule regardless of how fast the server
+ * answers; latency is measured from the scheduled start so queueing is not hidden.
+ */
+public class LoadTestRunner {
+
+    private static final String PASSWORD = "LoadTest#2025";
+    private static final String[] STATUSES = {null, "Applied", "Evaluation", "Approved", "Rejected"};
+
+    private final LoadTestSettings settings;
+    private final ConfigurableApplicationContext context;
+    private final String baseUrl;
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final HttpClient http;
+    private final EndpointStats stats = new EndpointStats();
+
+    private final List<Account> clients = new CopyOnWriteArrayList<>();
+    private Account employee;
+    // Loans waiting for the next employee action, so transitions mostly hit valid states
+    private final ConcurrentLinkedQueue<Long> applied = new ConcurrentLinkedQueue<>();
+    private final ConcurrentLinkedQueue<Long> evaluating = new ConcurrentLinkedQueue<>();
+    private final AtomicLong registrations = new AtomicLong();
+
+    private final Operation[] operations;
+    private final int[] cumulativeWeights;
+
+    LoadTestRunner(LoadTestSettings settings, ConfigurableApplicationContext context, int port) {
+        this.settings = settings;
+        this.context = context;
+        this.baseUrl = "http://localhost:" + port;
+        this.http = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .executor(executor)
+                .build();
+
+        this.operations = settings.mix().entrySet().stream()
+                .filter(e -> e.getValue() > 0)
+                .map(Map.Entry::getKey)
+                .toArray(Operation[]::new);
+        this.cumulativeWeights = new int[operations.length];
+        int sum = 0;
+        for (int i = 0; i < operations.length; i++) {
+            sum += settings.mix().get(operations[i]);
+            cumulativeWeights[i] = sum;
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadTestSettings settings = LoadTestSettings.parse(args);
+        // DevTools is on the test classpath; its restart would rerun main without the arguments
+        System.setProperty("spring.devtools.restart.enabled", "false");
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(DemoApplication.class)
+                .profiles("loadtest")
+                .run()) {
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            new LoadTestRunner(settings, context, port).run();
+        }
+    }
+
+    void run() throws Exception {
+        System.out.printf("Seeding %d clients and %d loans...%n", settings.clients(), settings.loans());
+        seed();
+
+        System.out.printf("Warmup %s, then measuring %s with %s%n", settings.warmup(), settings.duration(),
+                settings.openModel() ? settings.rate() + " req/s (open model)" : settings.concurrency() + " workers (closed model)");
+        drive(settings.warmup());
+        stats.reset();
+
+        long start = System.nanoTime();
+        drive(settings.duration());
+        Duration elapsed = Duration.ofNanos(System.nanoTime() - start);
+
+        stats.report(elapsed, settings.output(), System.out);
+        executor.shutdownNow();
+    }
+
+    private void seed() throws Exception {
+        // There is no API for creating employees, so the one account is created directly
+        User user = new User();
+        user.setUsername("lt-employee");
+        user.setPassword(PASSWORD);
+        user.setRole("bank_employee");
+        user.setFirstName("Load");
+        user.setLastName("Test");
+        user.setEmail("lt-employee@example.com");
+        context.getBean(UserService.class).register(user);
+        employee = new Account("lt-employee");
+        execute(Operation.LOGIN_EMPLOYEE, System.nanoTime());
+
+        for (int i = 0; i < settings.clients(); i++) {
+            execute(Operation.REGISTER, System.nanoTime());
+        }
+        for (int i = 0; i < settings.loans(); i++) {
+            execute(Operation.APPLY, System.nanoTime());
+        }
+    }
+
+    private void drive(Duration length) throws InterruptedException {
+        long end = System.nanoTime() + length.toNanos();
+        if (settings.openModel()) {
+            long interval = 1_000_000_000L / settings.rate();
+            long next = System.nanoTime();
+            while (next < end) {
+                long now;
+                while ((now = System.nanoTime()) < next) LockSupport.parkNanos(next - now);
+                long scheduled = next;
+                executor.execute(() -> issue(scheduled));
+                next += interval;
+            }
+        } else {
+            Thread[] workers = new Thread[settings.concurrency()];
+            for (int i = 0; i < workers.length; i++) {
+                workers[i] = Thread.ofVirtual().start(() -> {
+                    while (System.nanoTime() < end) issue(System.nanoTime());
+                });
+            }
+            for (Thread worker : workers) worker.join();
+        }
+    }
+
+    private void issue(long scheduled) {
+        // Operations without a usable target (e.g. nothing to approve yet) give way to another pick
+        for (int attempt = 0; attempt < 5; attempt++) {
+            if (execute(pick(), scheduled)) return;
+        }
+    }
+
+    private Operation pick() {
+        int r = ThreadLocalRandom.current().nextInt(cumulativeWeights[cumulativeWeights.length - 1]);
+        for (int i = 0; i < cumulativeWeights.length; i++) {
+            if (r < cumulativeWeights[i]) return operations[i];
+        }
+        return operations[operations.length - 1];
+    }
+
+    private boolean execute(Operation op, long scheduled) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        Account client = clients.isEmpty() ? null : clients.get(random.nextInt(clients.size()));
+        boolean needsClient = op == Operation.LOGIN_CLIENT || op == Operation.APPLY || op == Operation.CLIENT_LOANS
+                || op == Operation.PROFILE;
+        if (needsClient && client == null) return false;
+
+        switch (op) {
+            case REGISTER -> {
+                String username = "lt-client-" + registrations.incrementAndGet();
+                HttpResponse<byte[]> response = send(op, scheduled, post("/api/auth/register", null, Map.of(
+                        "firstName", "Load", "lastName", "Client", "email", username + "@example.com",
+                        "username", username, "password", PASSWORD)));
+                if (ok(response) && clients.size() < settings.clients()) {
+                    Account account = new Account(username);
+                    login(Operation.LOGIN_CLIENT, account, scheduled);
+                    clients.add(account);
+                }
+            }
+            case LOGIN_CLIENT -> login(op, client, scheduled);
+            case LOGIN_EMPLOYEE -> login(op, employee, scheduled);
+            case APPLY -> {
+                HttpResponse<byte[]> response = send(op, scheduled, post("/api/client/apply", client.token, application()));
+                if (ok(response)) applied.add(Long.parseLong(new String(response.body(), StandardCharsets.UTF_8).trim()));
+            }
+            case CLIENT_LOANS -> get(op, scheduled, "/api/client/loans", client);
+            case PROFILE -> get(op, scheduled, "/api/client/profile", client);
+            case EMPLOYEE_LOANS -> {
+                String status = STATUSES[random.nextInt(STATUSES.length)];
+                get(op, scheduled, "/api/employee/loans?size=20" + (status != null ? "&status=" + status : ""), employee);
+            }
+            case EVALUATE -> {
+                Long id = applied.poll();
+                if (id == null) return false;
+                if (ok(send(op, scheduled, post("/api/employee/loans/" + id + "/evaluate", employee.token, null)))) {
+                    evaluating.add(id);
+                }
+            }
+            case APPROVE, REJECT -> {
+                Long id = evaluating.poll();
+                if (id == null) return false;
+                String action = op == Operation.APPROVE ? "approve" : "reject";
+                send(op, scheduled, post("/api/employee/loans/" + id + "/" + action, employee.token, null));
+            }
+            case SUMMARY -> get(op, scheduled, "/api/employee/summary", employee);
+        }
+        return true;
+    }
+
+    private void login(Operation op, Account account, long scheduled) {
+        String path = op == Operation.LOGIN_EMPLOYEE ? "/api/auth/login_employee" : "/api/auth/login_client";
+        HttpResponse<byte[]> response = send(op, scheduled,
+                post(path, null, Map.of("username", account.username, "password", PASSWORD)));
+        if (!ok(response)) return;
+        try {
+            JsonNode body = objectMapper.readTree(response.body());
+            account.token = body.get("token").asText();
+        } catch (Exception e) {
+            stats.failed(op);
+        }
+    }
+
+    private Map<String, Object> application() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        return Map.of(
+                "fatherName", "Petrit",
+                "birthDate", LocalDate.of(1970 + random.nextInt(35), 1 + random.nextInt(12), 1 + random.nextInt(28)).toString(),
+                "birthPlace", "Tiranë",
+                "phoneNumber", "+35569" + (1_000_000 + random.nextInt(8_999_999)),
+                "educationLevel", "Bachelor",
+                "maritalStatus", "Beqar",
+                "requestedAmount", 1_000 + random.nextInt(99_000),
+                "currency", random.nextBoolean() ? "EUR" : "ALL",
+                "durationMonths", 12 * (1 + random.nextInt(10)),
+                "loanType", random.nextBoolean() ? "Personal" : "Mortgage");
+    }
+
+    private HttpResponse<byte[]> send(Operation op, long scheduled, HttpRequest request) {
+        try {
+            // Bodies stay as received so compressed sizes are what gets counted
+            HttpResponse<byte[]> response = http.send(request, HttpResponse.BodyHandlers.ofByteArray());
+            stats.record(op, response.statusCode(), System.nanoTime() - scheduled, response.body().length);
+            return response;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            stats.failed(op);
+        }
+        return null;
+    }
+
+    // GET bodies are never parsed, so they may come back gzipped or, when revalidating, as a 304
+    private void get(Operation op, long scheduled, String path, Account account) {
+        HttpRequest.Builder builder = request(path, account.token);
+        if (settings.gzip()) builder.header("Accept-Encoding", "gzip");
+        String etag = settings.revalidate() ? account.etags.get(path) : null;
+        if (etag != null) builder.header("If-None-Match", etag);
+
+        HttpResponse<byte[]> response = send(op, scheduled, builder.GET().build());
+        if (settings.revalidate() && ok(response)) {
+            response.headers().firstValue("ETag").ifPresent(value -> account.etags.put(path, value));
+        }
+    }
+
+    private HttpRequest post(String path, String token, Object body) {
+        try {
+            HttpRequest.BodyPublisher publisher = body == null
+                    ? HttpRequest.BodyPublishers.noBody()
+                    : HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(body));
+            return request(path, token).header("Content-Type", "application/json").POST(publisher).build();
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private HttpRequest.Builder request(String path, String token) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(baseUrl + path)).timeout(Duration.ofSeconds(30));
+        if (token != null) builder.header("Authorization", "Bearer " + token);
+        return builder;
+    }
+
+    private static boolean ok(HttpResponse<byte[]> response) {
+        return response != null && response.statusCode() / 100 == 2;
+    }
+
+    private static class Account {
+        private final String username;
+        private volatile String token;
+        private final Map<String, String> etags = new ConcurrentHashMap<>();
+
+        private Account(String username) {
+            this.username = username;
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package com.example.demo.loadtest;
+
+import org.springframework.boot.convert.DurationStyle;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Options passed as key=value arguments:
+ * <ul>
+ *   <li>clients - client accounts registered before the run (default 50)</li>
+ *   <li>loans - applications seeded before the run (default 200)</li>
+ *   <li>concurrency - closed model: workers issuing back-to-back requests (default 32)</li>
+ *   <li>rate - open model: requests per second; overrides concurrency when above 0 (default 0)</li>
+ *   <li>warmup, duration - e.g. 15s, 2m (defaults 15s, 60s)</li>
+ *   <li>mix - weights per operation, e.g. CLIENT_LOANS:50,APPLY:5 (unlisted keep their default)</li>
+ *   <li>output - directory for the per-endpoint .hgrm files (default target/loadtest)</li>
+ *   <li>gzip - ask for compressed GET responses (default true)</li>
+ *   <li>revalidate - send If-None-Match with the last ETag seen per account and URL (default false)</li>
+ * </ul>
+ */
+public record LoadTestSettings(int clients, int loans, int concurrency, int rate,
+                               Duration warmup, Duration duration,
+                               Map<Operation, Integer> mix, Path output,
+                               boolean gzip, boolean revalidate) {
+
+    public static LoadTestSettings parse(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            int eq = arg.indexOf('=');
+            if (eq <= 0) throw new IllegalArgumentException("Expected key=value, got: " + arg);
+            options.put(arg.substring(0, eq).trim(), arg.substring(eq + 1).trim());
+        }
+
+        Map<Operation, Integer> mix = new EnumMap<>(Operation.class);
+        for (Operation op : Operation.values()) mix.put(op, op.getDefaultWeight());
+        String mixOption = options.get("mix");
+        if (mixOption != null && !mixOption.isBlank()) {
+            for (String entry : mixOption.split(",")) {
+                String[] parts = entry.split(":");
+                mix.put(Operation.valueOf(parts[0].trim().toUpperCase()), Integer.parseInt(parts[1].trim()));
+            }
+        }
+
+        return new LoadTestSettings(
+                Integer.parseInt(options.getOrDefault("clients", "50")),
+                Integer.parseInt(options.getOrDefault("loans", "200")),
+                Integer.parseInt(options.getOrDefault("concurrency", "32")),
+                Integer.parseInt(options.getOrDefault("rate", "0")),
+                duration(options.getOrDefault("warmup", "15s")),
+                duration(options.getOrDefault("duration", "60s")),
+                mix,
+                Path.of(options.getOrDefault("output", "target/loadtest")),
+                Boolean.parseBoolean(options.getOrDefault("gzip", "true")),
+                Boolean.parseBoolean(options.getOrDefault("revalidate", "false")));
+    }
+
+    public boolean openModel() {
+        return rate > 0;
+    }
+
+    private static Duration duration(String value) {
+        // Same short forms as Spring properties: 500ms, 30s, 2m
+        return DurationStyle.detectAndParse(value);
+    }
+}
@@ -0,0 +1,34 @@
+package com.example.demo.loadtest;
+
+/**
+ * Endpoints exercised by the load test, with their default share of the traffic mix.
+ */
+public enum Operation {
+    REGISTER("POST /api/auth/register", 2),
+    LOGIN_CLIENT("POST /api/auth/login_client", 5),
+    LOGIN_EMPLOYEE("POST /api/auth/login_employee", 1),
+    APPLY("POST /api/client/apply", 10),
+    CLIENT_LOANS("GET /api/client/loans", 30),
+    PROFILE("GET /api/client/profile", 5),
+    EMPLOYEE_LOANS("GET /api/employee/loans", 20),
+    EVALUATE("POST /api/employee/loans/{id}/evaluate", 6),
+    APPROVE("POST /api/employee/loans/{id}/approve", 3),
+    REJECT("POST /api/employee/loans/{id}/reject", 3),
+    SUMMARY("GET /api/employee/summary", 20);
+
+    private final String label;
+    private final int defaultWeight;
+
+    Operation(String label, int defaultWeight) {
+        this.label = label;
+        this.defaultWeight = defaultWeight;
+    }
+
+    public String getLabel() {
+        return label;
+    }
+
+    public int getDefaultWeight() {
+        return defaultWeight;
+    }
+}
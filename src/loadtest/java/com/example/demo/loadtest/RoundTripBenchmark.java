@@ -0,0 +1,95 @@
+package com.example.demo.loadtest;
+
+import com.example.demo.DemoApplication;
+import com.example.demo.dto.CreateLoanApplicationDTO;
+import com.example.demo.dto.IncomeDTO;
+import com.example.demo.mapper.LoanMapper;
+import com.example.demo.model.LoanApplication;
+import com.example.demo.model.User;
+import com.example.demo.service.LoanService;
+import com.example.demo.service.UserService;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Database round trips per apply and per loan update, with JDBC batching off and on.
+ * Runs the same writes LoanService performs behind POST /client/apply and PUT /client/loans/{id}.
+ * Options: iterations=200 incomes=3
+ */
+public class RoundTripBenchmark {
+
+    public static void main(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            String[] parts = arg.split("=", 2);
+            options.put(parts[0], parts[1]);
+        }
+        int iterations = Integer.parseInt(options.getOrDefault("iterations", "200"));
+        int incomes = Integer.parseInt(options.getOrDefault("incomes", "3"));
+
+        List<String> report = new ArrayList<>();
+        for (int batchSize : new int[]{0, 50}) {
+            report.add(run(batchSize, iterations, incomes));
+        }
+        System.out.printf("%n%-12s %14s %14s%n", "batch_size", "apply", "updateLoan");
+        report.forEach(System.out::println);
+    }
+
+    private static String run(int batchSize, int iterations, int incomes) {
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(DemoApplication.class)
+                .profiles("loadtest")
+                .properties(
+                        "spring.jpa.properties.hibernate.jdbc.batch_size=" + batchSize,
+                        "spring.jpa.properties.hibernate.session.events.auto=" + RoundTripCounter.class.getName(),
+                        "spring.datasource.url=jdbc:h2:mem:roundtrip" + batchSize + ";MODE=Oracle;DB_CLOSE_DELAY=-1")
+                .run()) {
+            LoanService loanService = context.getBean(LoanService.class);
+
+            User user = new User();
+            user.setUsername("roundtrip");
+            user.setPassword("RoundTrip#2025");
+            user.setRole("client");
+            user.setEmail("roundtrip@example.com");
+            user = context.getBean(UserService.class).register(user);
+
+            CreateLoanApplicationDTO dto = request(incomes);
+            List<Long> ids = new ArrayList<>(iterations);
+
+            long before = RoundTripCounter.total();
+            for (int i = 0; i < iterations; i++) {
+                LoanApplication saved = loanService.save(LoanMapper.toEntity(dto, user));
+                ids.add(saved.getId());
+            }
+            double apply = (RoundTripCounter.total() - before) / (double) iterations;
+
+            before = RoundTripCounter.total();
+            for (Long id : ids) {
+                loanService.updateLoan(id, user.getUsername(), dto);
+            }
+            double update = (RoundTripCounter.total() - before) / (double) iterations;
+
+            return String.format("%-12d %14.2f %14.2f", batchSize, apply, update);
+        }
+    }
+
+    private static CreateLoanApplicationDTO request(int incomeCount) {
+        List<IncomeDTO> incomes = new ArrayList<>();
+        for (int i = 0; i < incomeCount; i++) {
+            IncomeDTO income = new IncomeDTO();
+            income.setIncomeType("Paga");
+            income.setAmount(1200.0);
+            income.setCurrency("EUR");
+            income.setSince(LocalDate.of(2020, 1, 1));
+            incomes.add(income);
+        }
+        return new CreateLoanApplicationDTO("Petrit", LocalDate.of(1988, 5, 17), "Tiranë",
+                "roundtrip@example.com", "+355691234567", "Bachelor", "Beqar",
+                25_000.0, "EUR", 60, "Personal", incomes, null);
+    }
+}
@@ -0,0 +1,29 @@
+package com.example.demo.loadtest;
+
+import org.hibernate.BaseSessionEventListener;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counts JDBC executions across all sessions. Hibernate creates one instance per session
+ * (hibernate.session.events.auto), so the totals are kept in static adders.
+ */
+public class RoundTripCounter extends BaseSessionEventListener {
+
+    static final LongAdder STATEMENTS = new LongAdder();
+    static final LongAdder BATCHES = new LongAdder();
+
+    @Override
+    public void jdbcExecuteStatementEnd() {
+        STATEMENTS.increment();
+    }
+
+    @Override
+    public void jdbcExecuteBatchEnd() {
+        BATCHES.increment();
+    }
+
+    static long total() {
+        return STATEMENTS.sum() + BATCHES.sum();
+    }
+}
@@ -0,0 +1,20 @@
+package com.example.demo.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Component
+@ConfigurationProperties(prefix = "email.outbox")
+@Data
+public class EmailOutboxProperties {
+    private int batchSize = 50;
+    private int maxConcurrency = 4;   // parallel SMTP sends
+    private int maxAttempts = 5;
+    private Duration initialBackoff = Duration.ofSeconds(30); // doubled after every failed attempt
+    private Duration maxBackoff = Duration.ofMinutes(30);
+    private Duration retention = Duration.ofDays(7);          // how long sent rows are kept
+    private Duration claimTimeout = Duration.ofMinutes(5);    // a claimed message is retried after this
+}
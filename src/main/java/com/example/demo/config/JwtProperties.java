@@ -0,0 +1,33 @@
+package com.example.demo.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+@Component
+@ConfigurationProperties(prefix = "jwt")
+@Data
+public class JwtProperties {
+
+    // Key id used to sign new tokens
+    private String activeKid;
+
+    // Base64-encoded HMAC keys by key id; retired keys stay here until their tokens expire
+    private Map<String, String> keys = new HashMap<>();
+
+    // Authenticate from the verified role claim alone, without loading the user per request
+    private boolean stateless = true;
+
+    // Used only when stateless is off; a zero ttl disables the cache
+    private UserCache userCache = new UserCache();
+
+    @Data
+    public static class UserCache {
+        private long maxSize = 10_000;
+        private Duration ttl = Duration.ofSeconds(60);
+    }
+}
@@ -0,0 +1,17 @@
+package com.example.demo.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Component
+@ConfigurationProperties(prefix = "loans.changes")
+@Data
+public class LoanChangesProperties {
+    private int maxResults = 500;                         // changes returned per call
+    // Writes younger than this may still be uncommitted behind a higher sequence value,
+    // so the cursor does not move past them yet (they are returned again next time)
+    private Duration settleWindow = Duration.ofSeconds(10);
+}
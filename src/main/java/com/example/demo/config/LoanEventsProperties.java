@@ -0,0 +1,16 @@
+package com.example.demo.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Component
+@ConfigurationProperties(prefix = "loans.events")
+@Data
+public class LoanEventsProperties {
+    private int bufferSize = 256;                         // events queued per subscriber before it is evicted
+    private int maxSubscribers = 200;
+    private Duration timeout = Duration.ofMinutes(30);    // clients reconnect after this
+}
@@ -0,0 +1,31 @@
+package com.example.demo.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Component
+@ConfigurationProperties(prefix = "login")
+@Data
+public class LoginProperties {
+
+    private Admission admission = new Admission();
+    private Lockout lockout = new Lockout();
+
+    @Data
+    public static class Admission {
+        private int threads = 0;          // BCrypt workers; 0 = half the available cores
+        private int queueCapacity = 64;
+        private Duration queueTimeout = Duration.ofSeconds(2); // max wait for a worker before 429
+    }
+
+    @Data
+    public static class Lockout {
+        private int maxFailures = 5;
+        private Duration window = Duration.ofMinutes(15);
+        private Duration duration = Duration.ofMinutes(15);
+        private int maxTrackedPerStripe = 1024;
+    }
+}
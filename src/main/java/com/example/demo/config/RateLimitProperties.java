@@ -0,0 +1,24 @@
+package com.example.demo.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+@Component
+@ConfigurationProperties(prefix = "rate-limit")
+@Data
+public class RateLimitProperties {
+
+    // Token-bucket policies by name, see RateLimiter for the names in use
+    private Map<String, Policy> policies = new HashMap<>();
+
+    @Data
+    public static class Policy {
+        private int capacity = 1;                             // burst size
+        private Duration refillPeriod = Duration.ofSeconds(15); // time to regain one token
+    }
+}
@@ -5,19 +5,20 @@ import com.example.demo.dto.RegisterUserDTO;
 import com.example.demo.dto.ResetPasswordRequestDTO;
 import com.example.demo.dto.VerifyCodeRequestDTO;
 import com.example.demo.model.PasswordResetCode;
-import com.example.demo.model.RateLimiter;
 import com.example.demo.model.User;
+import com.example.demo.security.LoginThrottledException;
+import com.example.demo.security.RateLimiter;
 import com.example.demo.service.EmailService;
 import com.example.demo.service.JwtService;
 import com.example.demo.service.PasswordResetService;
 import com.example.demo.service.UserService;
 import com.example.demo.mapper.UserMapper;
+import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.time.LocalDateTime;
 import java.util.Map;
-import java.util.Random;
 
 @CrossOrigin(origins = "http://localhost:5173")
 @RestController
@@ -54,8 +55,18 @@ public class AuthController {
     }
 
     @PostMapping("/login_client")
-    public ResponseEntity<?> loginClient(@RequestBody LoginDTO dto) {
-        User user = userService.authenticateClient(dto.getUsername(), dto.getPassword());
+    public ResponseEntity<?> loginClient(@RequestBody LoginDTO dto, HttpServletRequest request) {
+        if (!rateLimiter.tryAcquire(RateLimiter.LOGIN_IP, request.getRemoteAddr())
+                || !rateLimiter.tryAcquire(RateLimiter.LOGIN_USER, dto.getUsername())) {
+            return ResponseEntity.status(429).body("Shumë përpjekje për hyrje. Provo përsëri më vonë.");
+        }
+
+        User user;
+        try {
+            user = userService.authenticateClient(dto.getUsername(), dto.getPassword());
+        } catch (LoginThrottledException e) {
+            return ResponseEntity.status(429).body("Shumë përpjekje për hyrje. Provo përsëri më vonë.");
+        }
         if (user != null) {
             String token = jwtService.generateToken(user.getUsername(), user.getRole());
             return ResponseEntity.ok(Map.of(
@@ -69,8 +80,18 @@ public class AuthController {
     }
 
     @PostMapping("/login_employee")
-    public ResponseEntity<?> loginEmployee(@RequestBody LoginDTO dto) {
-        User user = userService.authenticateEmployee(dto.getUsername(), dto.getPassword());
+    public ResponseEntity<?> loginEmployee(@RequestBody LoginDTO dto, HttpServletRequest request) {
+        if (!rateLimiter.tryAcquire(RateLimiter.LOGIN_IP, request.getRemoteAddr())
+                || !rateLimiter.tryAcquire(RateLimiter.LOGIN_USER, dto.getUsername())) {
+            return ResponseEntity.status(429).body("Shumë përpjekje për hyrje. Provo përsëri më vonë.");
+        }
+
+        User user;
+        try {
+            user = userService.authenticateEmployee(dto.getUsername(), dto.getPassword());
+        } catch (LoginThrottledException e) {
+            return ResponseEntity.status(429).body("Shumë përpjekje për hyrje. Provo përsëri më vonë.");
+        }
         if (user != null) {
             String token = jwtService.generateToken(user.getUsername(), user.getRole());
             return ResponseEntity.ok(Map.of(
@@ -84,17 +105,19 @@ public class AuthController {
     }
 
     @PostMapping("/request-reset-code")
-    public ResponseEntity<?> sendResetCode(@RequestBody Map<String, String> request) {
+    public ResponseEntity<?> sendResetCode(@RequestBody Map<String, String> request, HttpServletRequest httpRequest) {
         String email = request.get("email");
         System.out.println("Received email: " + email);
-        if (!rateLimiter.isAllowed(email)) {
+        // Per-IP first, so enumerating many emails from one client is capped too
+        if (!rateLimiter.tryAcquire(RateLimiter.RESET_CODE_IP, httpRequest.getRemoteAddr())
+                || !rateLimiter.tryAcquire(RateLimiter.RESET_CODE_EMAIL, email)) {
             return ResponseEntity.status(429).body("Shumë kërkesa. Provo përsëri pas 15 sekondash.");
         }
 
         User user = userService.findByEmail(email);
         if (user == null) return ResponseEntity.status(404).body("Email-i nuk u gjet");
 
-        String code = String.format("%06d", new Random().nextInt(999999));
+        String code = passwordResetService.generateCode();
         passwordResetService.createResetCode(user, code, LocalDateTime.now().plusMinutes(10));
 
         String subject = "BKT | Portali i Aplikimit për Kredi - Ndrysho Fjalëkalimin";
@@ -1,77 +1,140 @@
 package com.example.demo.controller;
 
-import com.example.demo.dto.LoanApplicationDTO;
+import com.example.demo.dto.BulkDecisionDTO;
+import com.example.demo.dto.LoanFilterDTO;
+import com.example.demo.dto.LoanSort;
 import com.example.demo.mapper.LoanMapper;
 import com.example.demo.model.LoanApplication;
-import com.example.demo.service.JwtService;
+import com.example.demo.model.LoanStatus;
+import com.example.demo.repository.LoanApplicationRepository;
+import com.example.demo.security.JwtPrincipal;
+import com.example.demo.service.LoanEventBroadcaster;
 import com.example.demo.service.LoanService;
 
 import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
-import java.util.Comparator;
-import java.util.stream.Collectors;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/employee")
 public class BankEmployeeController {
 
     private final LoanService loanService;
-    private final JwtService jwtService;
+    private final LoanEventBroadcaster loanEvents;
 
-    public BankEmployeeController(LoanService loanService, JwtService jwtService) {
+    public BankEmployeeController(LoanService loanService, LoanEventBroadcaster loanEvents) {
         this.loanService = loanService;
-        this.jwtService = jwtService;
+        this.loanEvents = loanEvents;
     }
 
     @GetMapping("/loans")
-    public ResponseEntity<?> getAllLoans(HttpServletRequest request) {
+    public ResponseEntity<?> getAllLoans(@ModelAttribute LoanFilterDTO filter,
+                                         @RequestParam(required = false) Long afterId,
+                                         @RequestParam(defaultValue = "20") int size,
+                                         @RequestParam(defaultValue = "NEWEST") LoanSort sort,
+                                         HttpServletRequest request) {
         String username = extractUsernameFromRequest(request);
         if (username == null) return ResponseEntity.status(401).body("Missing or invalid token");
 
-        return ResponseEntity.ok(
-                loanService.getAllLoans().stream()
-                        .sorted(Comparator.comparing(LoanApplication::getId).reversed())
-                        .map(LoanMapper::toDTO)
-                        .collect(Collectors.toList()));
+        return ResponseEntity.ok(loanService.getLoansPage(filter, afterId, size, sort));
     }
 
     private String extractUsernameFromRequest(HttpServletRequest request) {
-        String authHeader = request.getHeader("Authorization");
-        if (authHeader == null || !authHeader.startsWith("Bearer ")) return null;
-        return jwtService.extractUsername(authHeader.substring(7));
+        JwtPrincipal principal = JwtPrincipal.from(request);
+        return principal != null ? principal.getUsername() : null;
+    }
+
+    // Live feed of loan changes (created, updated, status_changed, deleted) for the dashboard
+    @GetMapping(value = "/loans/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<?> streamLoanEvents() {
+        SseEmitter emitter = loanEvents.subscribe();
+        if (emitter == null) return ResponseEntity.status(503).body("Too many subscribers");
+        return ResponseEntity.ok(emitter);
+    }
+
+    // Loans created, updated or deleted since the cursor returned by the previous call
+    @GetMapping("/loans/changes")
+    public ResponseEntity<?> getLoanChanges(@RequestParam(defaultValue = "0") long since) {
+        return ResponseEntity.ok(loanService.getLoanChanges(since));
     }
 
     @GetMapping("/loans/{id}")
-    public ResponseEntity<LoanApplicationDTO> getLoanDetails(@PathVariable Long id) {
-        LoanApplication loan = loanService.getLoanById(id);
-        return ResponseEntity.ok(LoanMapper.toDTO(loan));
+    public ResponseEntity<?> getLoanDetails(@PathVariable Long id, WebRequest webRequest) {
+        LoanApplicationRepository.LoanVersion version = loanService.getLoanVersion(id);
+        if (version == null) return ResponseEntity.status(404).body("Loan not found");
+        if (ConditionalGet.isCurrent(webRequest, ConditionalGet.loanEtag(id, version))) {
+            return ConditionalGet.notModified();
+        }
+
+        LoanApplication loan = loanService.getLoanDetails(id);
+        if (loan == null) return ResponseEntity.status(404).body("Loan not found");
+        return ConditionalGet.ok(LoanMapper.toDTO(loan));
     }
 
     @PostMapping("/loans/{id}/approve")
-    public ResponseEntity<?> approveLoan(@PathVariable Long id) {
-        return loanService.approveLoan(id)
+    public ResponseEntity<?> approveLoan(@PathVariable Long id, HttpServletRequest request) {
+        return loanService.approveLoan(id, extractUsernameFromRequest(request))
                 ? ResponseEntity.ok("Loan approved")
                 : ResponseEntity.badRequest().body("Action not allowed");
     }
 
     @PostMapping("/loans/{id}/reject")
-    public ResponseEntity<?> rejectLoan(@PathVariable Long id) {
-        return loanService.rejectLoan(id)
+    public ResponseEntity<?> rejectLoan(@PathVariable Long id, HttpServletRequest request) {
+        return loanService.rejectLoan(id, extractUsernameFromRequest(request))
                 ? ResponseEntity.ok("Loan rejected")
                 : ResponseEntity.badRequest().body("Action not allowed");
     }
 
     @PostMapping("/loans/{id}/evaluate")
-    public ResponseEntity<?> startEvaluation(@PathVariable Long id) {
-        return loanService.evaluateLoan(id)
+    public ResponseEntity<?> startEvaluation(@PathVariable Long id, HttpServletRequest request) {
+        return loanService.evaluateLoan(id, extractUsernameFromRequest(request))
                 ? ResponseEntity.ok("Loan set to Evaluation")
                 : ResponseEntity.badRequest().body("Action not allowed");
     }
 
+    // Applies one action to many loans in a single statement; outcomes are reported per id
+    @PostMapping("/loans/bulk")
+    public ResponseEntity<?> decideLoans(@RequestBody BulkDecisionDTO dto, HttpServletRequest request) {
+        return ResponseEntity.ok(loanService.decideLoans(dto.getAction(), dto.getIds(), extractUsernameFromRequest(request)));
+    }
+
     @GetMapping("/summary")
-    public ResponseEntity<?> getSummaryStats() {
-        return ResponseEntity.ok(loanService.getLoanStatistics());
+    public ResponseEntity<?> getSummaryStats(WebRequest webRequest) {
+        // The counts are the whole body, so they double as the validator
+        Map<String, Long> stats = loanService.getLoanStatistics();
+        String etag = ConditionalGet.etag(Arrays.stream(LoanStatus.values()).map(s -> stats.get(s.getLabel())).toArray());
+        if (ConditionalGet.isCurrent(webRequest, etag)) return ConditionalGet.notModified();
+        return ConditionalGet.ok(stats);
+    }
+
+    @GetMapping("/reports")
+    public ResponseEntity<?> getReports(@RequestParam(defaultValue = "month") String dateRange,
+                                        @RequestParam(defaultValue = "all") String status) {
+        return ResponseEntity.ok(loanService.getLoanReport(dateRange, status));
+    }
+
+    @GetMapping("/reports/export")
+    public ResponseEntity<StreamingResponseBody> exportReport(@RequestParam(defaultValue = "month") String dateRange,
+                                                              @RequestParam(defaultValue = "all") String status) {
+        StreamingResponseBody body = out -> loanService.exportLoansCsv(dateRange, status, out);
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"loan_reports.csv\"")
+                .contentType(new MediaType("text", "csv", StandardCharsets.UTF_8))
+                .body(body);
+    }
+
+    // Unknown actions or status filters are client errors
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<?> handleBadRequest(IllegalArgumentException e) {
+        return ResponseEntity.badRequest().body(e.getMessage());
     }
-}
\ No newline at end of file
+}
@@ -1,21 +1,19 @@
 package com.example.demo.controller;
 
 import com.example.demo.dto.CreateLoanApplicationDTO;
-import com.example.demo.dto.LoanApplicationDTO;
 import com.example.demo.mapper.LoanMapper;
 import com.example.demo.model.LoanApplication;
 import com.example.demo.model.User;
-import com.example.demo.service.JwtService;
+import com.example.demo.repository.LoanApplicationRepository;
+import com.example.demo.security.JwtPrincipal;
 import com.example.demo.service.LoanService;
 import com.example.demo.service.UserService;
 
 import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.http.ResponseEntity;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.web.bind.annotation.*;
-
-import java.util.Comparator;
-import java.util.List;
-import java.util.stream.Collectors;
+import org.springframework.web.context.request.WebRequest;
 
 @RestController
 @RequestMapping("/api/client")
@@ -23,18 +21,15 @@ public class ClientController {
 
     private final LoanService loanService;
     private final UserService userService;
-    private final JwtService jwtService;
 
-    public ClientController(LoanService loanService, UserService userService, JwtService jwtService) {
+    public ClientController(LoanService loanService, UserService userService) {
         this.loanService = loanService;
         this.userService = userService;
-        this.jwtService = jwtService;
     }
 
     private String extractUsernameFromRequest(HttpServletRequest request) {
-        String authHeader = request.getHeader("Authorization");
-        if (authHeader == null || !authHeader.startsWith("Bearer ")) return null;
-        return jwtService.extractUsername(authHeader.substring(7));
+        JwtPrincipal principal = JwtPrincipal.from(request);
+        return principal != null ? principal.getUsername() : null;
     }
 
     @PostMapping("/apply")
@@ -51,31 +46,44 @@ public class ClientController {
     }
 
     @GetMapping("/loans")
-    public ResponseEntity<?> getUserLoans(HttpServletRequest request) {
+    public ResponseEntity<?> getUserLoans(HttpServletRequest request, WebRequest webRequest) {
         String username = extractUsernameFromRequest(request);
         if (username == null) return ResponseEntity.status(401).body("Missing or invalid token");
 
-        User user = userService.findByUsername(username);
-        List<LoanApplication> loans = loanService.getLoansByUser(user);
+        LoanApplicationRepository.ListVersion version = loanService.getLoanListVersion(username);
+        if (ConditionalGet.isCurrent(webRequest, ConditionalGet.etag(version.getTotal(), version.getLastChange()))) {
+            return ConditionalGet.notModified();
+        }
+        return ConditionalGet.ok(loanService.getLoanSummariesByUsername(username));
+    }
 
-        List<LoanApplicationDTO> sortedLoanDTOs = loans.stream()
-                .sorted(Comparator.comparing(LoanApplication::getId).reversed())
-                .map(LoanMapper::toDTO)
-                .collect(Collectors.toList());
+    // The client's own loans created, updated or deleted since the cursor of the previous call
+    @GetMapping("/loans/changes")
+    public ResponseEntity<?> getLoanChanges(@RequestParam(defaultValue = "0") long since, HttpServletRequest request) {
+        String username = extractUsernameFromRequest(request);
+        if (username == null) return ResponseEntity.status(401).body("Missing or invalid token");
 
-        return ResponseEntity.ok(sortedLoanDTOs);
+        return ResponseEntity.ok(loanService.getLoanChangesByUsername(username, since));
     }
 
     @GetMapping("/loans/{id}")
-    public ResponseEntity<?> getLoanDetails(@PathVariable Long id, HttpServletRequest request) {
+    public ResponseEntity<?> getLoanDetails(@PathVariable Long id, HttpServletRequest request, WebRequest webRequest) {
         String username = extractUsernameFromRequest(request);
         if (username == null) return ResponseEntity.status(401).body("Missing or invalid token");
 
-        LoanApplication loan = loanService.getLoanById(id);
-        if (!loan.getUser().getUsername().equals(username)) {
+        // Ownership and freshness come from the version row; the loan itself is loaded only for a 200
+        LoanApplicationRepository.LoanVersion version = loanService.getLoanVersion(id);
+        if (version == null) return ResponseEntity.status(404).body("Loan not found");
+        if (!version.getUsername().equals(username)) {
             return ResponseEntity.status(403).body("Unauthorized");
         }
-        return ResponseEntity.ok(LoanMapper.toDTO(loan));
+        if (ConditionalGet.isCurrent(webRequest, ConditionalGet.loanEtag(id, version))) {
+            return ConditionalGet.notModified();
+        }
+
+        LoanApplication loan = loanService.getLoanDetails(id);
+        if (loan == null) return ResponseEntity.status(404).body("Loan not found");
+        return ConditionalGet.ok(LoanMapper.toDTO(loan));
     }
 
     @DeleteMapping("/loans/{id}")
@@ -83,11 +91,11 @@ public class ClientController {
         String username = extractUsernameFromRequest(request);
         if (username == null) return ResponseEntity.status(401).body("Missing or invalid token");
 
-        LoanApplication loan = loanService.getLoanById(id);
-        if (!loan.getUser().getUsername().equals(username) || !loan.getStatus().equals("Applied")) {
+        if (loanService.getLoanVersion(id) == null) return ResponseEntity.status(404).body("Loan not found");
+        // Owner and status are checked again, under a row lock, by the delete itself
+        if (!loanService.delete(id, username)) {
             return ResponseEntity.status(403).body("Cannot delete this loan");
         }
-        loanService.delete(id);
         return ResponseEntity.ok("Deleted");
     }
 
@@ -98,12 +106,31 @@ public class ClientController {
         String username = extractUsernameFromRequest(request);
         if (username == null) return ResponseEntity.status(401).body("Missing or invalid token");
 
-        LoanApplication loan = loanService.getLoanById(id);
-        if (!loan.getUser().getUsername().equals(username) || !loan.getStatus().equals("Applied")) {
-            return ResponseEntity.status(403).body("Cannot update this loan");
+        try {
+            if (!loanService.updateLoan(id, username, dto)) {
+                return ResponseEntity.status(403).body("Cannot update this loan");
+            }
+        } catch (ObjectOptimisticLockingFailureException e) {
+            return ResponseEntity.status(409).body("Loan was modified concurrently, reload and try again");
         }
+        return ResponseEntity.ok("Updated");
+    }
 
-        loanService.updateLoan(id, dto);
+    // Partial edit: only the fields present in the body are changed
+    @PatchMapping("/loans/{id}")
+    public ResponseEntity<?> patchLoan(@PathVariable Long id,
+                                       @RequestBody CreateLoanApplicationDTO dto,
+                                       HttpServletRequest request) {
+        String username = extractUsernameFromRequest(request);
+        if (username == null) return ResponseEntity.status(401).body("Missing or invalid token");
+
+        try {
+            if (!loanService.patchLoan(id, username, dto)) {
+                return ResponseEntity.status(403).body("Cannot update this loan");
+            }
+        } catch (ObjectOptimisticLockingFailureException e) {
+            return ResponseEntity.status(409).body("Loan was modified concurrently, reload and try again");
+        }
         return ResponseEntity.ok("Updated");
     }
 }
\ No newline at end of file
@@ -0,0 +1,67 @@
+package com.example.demo.controller;
+
+import com.example.demo.repository.LoanApplicationRepository;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.context.request.WebRequest;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.stream.Collectors;
+
+// Conditional GET for the read endpoints. Validators are built from versions and counters that
+// are cheap to read, so a client with a current copy gets a 304 before the body is loaded or serialized.
+final class ConditionalGet {
+
+    // Per-user data: browsers may keep it, but must revalidate before every use
+    private static final CacheControl REVALIDATE = CacheControl.noCache().cachePrivate();
+
+    private ConditionalGet() {
+    }
+
+    // Weak, since compression changes the bytes but not the meaning of the body
+    static String etag(Object... parts) {
+        return "W/\"" + Arrays.stream(parts).map(String::valueOf).collect(Collectors.joining("-")) + "\"";
+    }
+
+    // For bodies with nothing cheaper to key on: a SHA-256 of the serialized body, so two
+    // different bodies never share a validator the way a 32-bit hash code can
+    static String digestEtag(byte[] body) {
+        return etag(sha256(body));
+    }
+
+    // A loan's detail body: its version covers the loan and its incomes, and the owner's profile
+    // fields are digested in so that a profile change is not answered with a stale 304
+    static String loanEtag(Long id, LoanApplicationRepository.LoanVersion version) {
+        String owner = String.join("\n", String.valueOf(version.getFirstName()), String.valueOf(version.getLastName()),
+                String.valueOf(version.getEmail()), String.valueOf(version.getRole()));
+        return etag(id, version.getVersion(), sha256(owner.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    private static String sha256(byte[] bytes) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(bytes));
+        } catch (NoSuchAlgorithmException e) {
+            // Every JRE is required to provide SHA-256
+            throw new IllegalStateException(e);
+        }
+    }
+
+    // Also sets the ETag on the response. No Last-Modified: no timestamp here moves with everything
+    // a body shows, and a client revalidating by date alone would be told a stale copy is current.
+    static boolean isCurrent(WebRequest request, String etag) {
+        return request.checkNotModified(etag);
+    }
+
+    static ResponseEntity<?> notModified() {
+        return ResponseEntity.status(HttpStatus.NOT_MODIFIED).cacheControl(REVALIDATE).build();
+    }
+
+    static <T> ResponseEntity<T> ok(T body) {
+        return ResponseEntity.ok().cacheControl(REVALIDATE).body(body);
+    }
+}
@@ -0,0 +1,10 @@
+package com.example.demo.dto;
+
+import java.util.List;
+import lombok.*;
+
+@Data
+public class BulkDecisionDTO {
+    private String action; // approve, reject or evaluate
+    private List<Long> ids;
+}
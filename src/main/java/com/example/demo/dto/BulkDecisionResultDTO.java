@@ -0,0 +1,19 @@
+package com.example.demo.dto;
+
+import com.example.demo.model.LoanStatus;
+import java.util.Map;
+import lombok.*;
+
+@AllArgsConstructor
+@Data
+public class BulkDecisionResultDTO {
+    public static final String UPDATED = "updated";
+    public static final String NOT_ALLOWED = "not_allowed"; // current status does not permit the action
+    public static final String NOT_FOUND = "not_found";
+    public static final String CONFLICT = "conflict"; // kept changing concurrently; worth trying again
+
+    private String action;
+    private LoanStatus status; // status the updated loans now have
+    private int updated;
+    private Map<Long, String> outcomes;
+}
@@ -0,0 +1,10 @@
+package com.example.demo.dto;
+
+import lombok.*;
+
+@AllArgsConstructor
+@Data
+public class ChartEntryDTO {
+    private String name;
+    private long value;
+}
@@ -21,4 +21,7 @@ public class CreateLoanApplicationDTO {
     private String loanType;
 
     private List<IncomeDTO> incomes;
+
+    // The version the client loaded; an edit against an older one is refused with a 409
+    private Long version;
 }
\ No newline at end of file
@@ -1,5 +1,6 @@
 package com.example.demo.dto;
 
+import com.example.demo.model.LoanStatus;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
@@ -24,8 +25,9 @@ public class LoanApplicationDTO {
     private String currency;
     private Integer durationMonths;
     private String loanType;
-    private String status;
+    private LoanStatus status;
     private LocalDateTime createdAt;
+    private Long version;
 
     private List<IncomeDTO> incomes;
 }
\ No newline at end of file
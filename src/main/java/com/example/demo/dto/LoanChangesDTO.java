@@ -0,0 +1,13 @@
+package com.example.demo.dto;
+
+import java.util.List;
+import lombok.*;
+
+@AllArgsConstructor
+@Data
+public class LoanChangesDTO<T> {
+    private List<T> changed;     // current state of every loan created or updated after the cursor
+    private List<Long> deleted;  // ids of loans deleted after the cursor
+    private long cursor;         // pass back as ?since= on the next call
+    private boolean hasMore;     // another call right away returns more changes
+}
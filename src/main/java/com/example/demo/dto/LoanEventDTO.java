@@ -0,0 +1,20 @@
+package com.example.demo.dto;
+
+import com.example.demo.model.LoanStatus;
+import java.time.LocalDateTime;
+import java.util.List;
+import lombok.*;
+
+@AllArgsConstructor
+@Data
+public class LoanEventDTO {
+    public static final String CREATED = "created";
+    public static final String UPDATED = "updated";
+    public static final String STATUS_CHANGED = "status_changed";
+    public static final String DELETED = "deleted";
+
+    private String type;
+    private List<Long> loanIds;   // one id, or every loan moved by a bulk decision
+    private LoanStatus status;    // status after the change; null for deletions
+    private LocalDateTime at;
+}
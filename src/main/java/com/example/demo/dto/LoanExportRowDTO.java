@@ -0,0 +1,19 @@
+package com.example.demo.dto;
+
+import com.example.demo.model.LoanStatus;
+import java.time.LocalDateTime;
+import lombok.*;
+
+@AllArgsConstructor
+@Data
+public class LoanExportRowDTO {
+    private Long id;
+    private String firstName;
+    private String lastName;
+    private Double requestedAmount;
+    private String currency;
+    private Integer durationMonths;
+    private String loanType;
+    private LoanStatus status;
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,21 @@
+package com.example.demo.dto;
+
+import java.time.LocalDate;
+import lombok.*;
+import org.springframework.format.annotation.DateTimeFormat;
+
+@Data
+public class LoanFilterDTO {
+    private String status;
+    private String loanType;
+    private String currency;
+    private Double minAmount;
+    private Double maxAmount;
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate createdFrom; // inclusive
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate createdTo;   // inclusive
+
+    private String applicant; // prefix of the applicant's first or last name
+}
@@ -0,0 +1,11 @@
+package com.example.demo.dto;
+
+import java.util.List;
+import lombok.*;
+
+@AllArgsConstructor
+@Data
+public class LoanPageDTO {
+    private List<LoanApplicationDTO> items;
+    private Long nextCursor; // null when there are no more pages
+}
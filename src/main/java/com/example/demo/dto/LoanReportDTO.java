@@ -0,0 +1,19 @@
+package com.example.demo.dto;
+
+import java.util.List;
+import lombok.*;
+
+@Data
+public class LoanReportDTO {
+    private long totalApplications;
+    private long totalApproved;
+    private long totalRejected;
+    private long totalPending; // Applied + Evaluation
+    private double approvalRate;
+    private double averageAmount; // in ALL
+    private double totalVolume;   // in ALL
+
+    private List<MonthlyTrendDTO> trendsData; // last 6 months, oldest first
+    private List<ChartEntryDTO> typeDistribution;
+    private List<ChartEntryDTO> amountRangeData;
+}
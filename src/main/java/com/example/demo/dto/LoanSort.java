@@ -0,0 +1,6 @@
+package com.example.demo.dto;
+
+public enum LoanSort {
+    NEWEST, // id descending
+    OLDEST  // id ascending
+}
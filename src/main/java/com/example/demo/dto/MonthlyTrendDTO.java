@@ -0,0 +1,13 @@
+package com.example.demo.dto;
+
+import lombok.*;
+
+@AllArgsConstructor
+@Data
+public class MonthlyTrendDTO {
+    private String month; // yyyy-MM
+    private long applications;
+    private long approved;
+    private long rejected;
+    private double volume; // in ALL
+}
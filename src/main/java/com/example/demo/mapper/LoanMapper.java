@@ -3,8 +3,10 @@ package com.example.demo.mapper;
 import com.example.demo.dto.CreateLoanApplicationDTO;
 import com.example.demo.dto.IncomeDTO;
 import com.example.demo.dto.LoanApplicationDTO;
+import com.example.demo.dto.LoanSummaryDTO;
 import com.example.demo.model.Income;
 import com.example.demo.model.LoanApplication;
+import com.example.demo.model.LoanStatus;
 import com.example.demo.model.User;
 
 import java.util.List;
@@ -15,12 +17,13 @@ public class LoanMapper {
     public static LoanApplicationDTO toDTO(LoanApplication loan) {
         LoanApplicationDTO dto = new LoanApplicationDTO();
 
+        User user = loan.getUser();
         dto.setId(loan.getId());
-        dto.setFirstName(loan.getUser().getFirstName());
-        dto.setLastName(loan.getUser().getLastName());
-        dto.setRole(loan.getUser().getRole());
+        dto.setFirstName(user.getFirstName());
+        dto.setLastName(user.getLastName());
+        dto.setRole(user.getRole());
         dto.setFatherName(loan.getFatherName());
-        dto.setEmail(loan.getUser().getEmail());
+        dto.setEmail(user.getEmail());
         dto.setPhoneNumber(loan.getPhoneNumber());
 
         dto.setBirthDate(loan.getBirthDate());
@@ -34,6 +37,7 @@ public class LoanMapper {
         dto.setLoanType(loan.getLoanType());
         dto.setStatus(loan.getStatus());
         dto.setCreatedAt(loan.getCreatedAt());
+        dto.setVersion(loan.getVersion());
 
         if (loan.getIncomes() != null) {
             dto.setIncomes(loan.getIncomes().stream()
@@ -44,6 +48,11 @@ public class LoanMapper {
         return dto;
     }
 
+    public static LoanSummaryDTO toSummary(LoanApplication loan) {
+        return new LoanSummaryDTO(loan.getId(), loan.getRequestedAmount(), loan.getCurrency(),
+                loan.getDurationMonths(), loan.getLoanType(), loan.getStatus(), loan.getCreatedAt());
+    }
+
     public static IncomeDTO toDTO(Income income) {
         IncomeDTO dto = new IncomeDTO();
         dto.setIncomeType(income.getIncomeType());
@@ -75,7 +84,7 @@ public class LoanMapper {
         loan.setCurrency(dto.getCurrency());
         loan.setDurationMonths(dto.getDurationMonths());
         loan.setLoanType(dto.getLoanType());
-        loan.setStatus("Applied");
+        loan.setStatus(LoanStatus.APPLIED);
         loan.setCreatedAt(java.time.LocalDateTime.now());
 
         if (dto.getIncomes() != null) {
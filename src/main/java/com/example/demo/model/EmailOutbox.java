@@ -0,0 +1,44 @@
+package com.example.demo.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "email_outbox", indexes = @Index(name = "idx_outbox_status_next", columnList = "status, next_attempt_at"))
+@Data
+public class EmailOutbox {
+
+    public static final String PENDING = "Pending";
+    public static final String SENDING = "Sending"; // claimed by a dispatcher until next_attempt_at
+    public static final String SENT = "Sent";
+    public static final String FAILED = "Failed";
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "email_outbox_seq")
+    @SequenceGenerator(name = "email_outbox_seq", sequenceName = "email_outbox_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(nullable = false)
+    private String recipient;
+
+    private String subject;
+
+    @Column(length = 4000)
+    private String body;
+
+    @Column(nullable = false)
+    private String status; // Pending, Sending, Sent, Failed
+
+    private int attempts;
+
+    @Column(nullable = false)
+    private LocalDateTime nextAttemptAt;
+
+    private LocalDateTime createdAt;
+    private LocalDateTime sentAt;
+
+    @Column(length = 1000)
+    private String lastError;
+}
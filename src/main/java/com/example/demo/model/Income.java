@@ -3,16 +3,20 @@ package com.example.demo.model;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import lombok.Data;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.time.LocalDate;
 
 @Entity
-@Table(name = "incomes")
+@Table(name = "incomes", indexes = @Index(name = "idx_income_loan", columnList = "loan_id"))
 @Data
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "incomes")
 public class Income {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "incomes_seq")
+    @SequenceGenerator(name = "incomes_seq", sequenceName = "incomes_seq", allocationSize = 50)
     private Long id;
 
     private String incomeType; // Paga, Qeraja, Biznesi
@@ -3,20 +3,41 @@ package com.example.demo.model;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import lombok.Data;
+import org.hibernate.annotations.BatchSize;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.ColumnDefault;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
 
 @Entity
-@Table(name = "loan_applications")
+@Table(name = "loan_applications", indexes = {
+        @Index(name = "idx_loan_status_created", columnList = "status, created_at"),
+        // Status filter with the id cursor of the employee list: a range scan instead of a sort
+        @Index(name = "idx_loan_status_id", columnList = "status, id"),
+        @Index(name = "idx_loan_user_id", columnList = "user_id, id"),
+        @Index(name = "idx_loan_created", columnList = "created_at"),
+        @Index(name = "idx_loan_change_seq", columnList = "change_seq"),
+        @Index(name = "idx_loan_user_change_seq", columnList = "user_id, change_seq")
+})
 @Data
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "loans")
 public class LoanApplication {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    // Pooled sequence: one round trip reserves 50 ids, and unlike IDENTITY it lets inserts batch
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "loan_applications_seq")
+    @SequenceGenerator(name = "loan_applications_seq", sequenceName = "loan_applications_seq", allocationSize = 50)
     private Long id;
 
+    // Guards edits against concurrent status changes; existing rows start at 0
+    @Version
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private Long version;
+
     @ManyToOne(optional = false)
     @JoinColumn(name = "user_id")
     @JsonIgnore
@@ -36,11 +57,18 @@ public class LoanApplication {
     private Integer durationMonths;
     private String loanType; // Kredi per shtepi, etc.
 
-    private String status; // Applied, Evaluation, Approved, Rejected
+    private LoanStatus status; // stored as its label via LoanStatusConverter
 
     private LocalDateTime createdAt;
 
-    @OneToMany(mappedBy = "loanApplication", cascade = CascadeType.ALL)
+    // Taken from loan_change_seq on every write; the cursor for delta sync
+    @Column(name = "change_seq")
+    private Long changeSeq;
+    private LocalDateTime updatedAt;
+
+    @OneToMany(mappedBy = "loanApplication", cascade = CascadeType.ALL, orphanRemoval = true)
+    @BatchSize(size = 100) // one income query per page of loans
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "loan-incomes")
     private List<Income> incomes;
 
 }
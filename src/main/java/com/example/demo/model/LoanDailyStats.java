@@ -0,0 +1,23 @@
+package com.example.demo.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+import java.time.LocalDate;
+
+// Applications created on one day, by type, currency and current status, with their summed
+// requested amount (in that currency). Maintained by LoanDailyRollup alongside every loan write.
+@Entity
+@Table(name = "loan_daily_stats")
+@Data
+public class LoanDailyStats {
+
+    @EmbeddedId
+    private LoanDailyStatsId id;
+
+    @Column(nullable = false)
+    private long applications;
+
+    @Column(nullable = false)
+    private double volume;
+}
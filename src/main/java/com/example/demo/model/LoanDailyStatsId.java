@@ -0,0 +1,30 @@
+package com.example.demo.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Convert;
+import jakarta.persistence.Embeddable;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+
+@Embeddable
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class LoanDailyStatsId implements Serializable {
+
+    @Column(name = "stat_day")
+    private LocalDate day;
+
+    private String loanType;  // "-" when the loan has none
+
+    private String currency;  // "-" when the loan has none
+
+    // Spelled out: converters are not auto-applied to id attributes, and without it the column
+    // would hold the ordinal instead of the label the rebuild copies from loan_applications
+    @Convert(converter = LoanStatusConverter.class)
+    private LoanStatus status;
+}
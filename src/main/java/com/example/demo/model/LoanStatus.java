@@ -0,0 +1,63 @@
+package com.example.demo.model;
+
+import com.fasterxml.jackson.annotation.JsonValue;
+
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Loan application status and the transitions employees may make between them.
+ * The label is what gets stored and serialized, so existing rows and API clients
+ * keep seeing "Applied", "Evaluation", "Approved" and "Rejected".
+ */
+public enum LoanStatus {
+    APPLIED("Applied"),
+    EVALUATION("Evaluation"),
+    APPROVED("Approved"),
+    REJECTED("Rejected");
+
+    private final String label;
+
+    LoanStatus(String label) {
+        this.label = label;
+    }
+
+    @JsonValue
+    public String getLabel() {
+        return label;
+    }
+
+    // Statuses a loan may move to from this one; decisions are final
+    public Set<LoanStatus> next() {
+        return switch (this) {
+            case APPLIED -> EnumSet.of(EVALUATION, APPROVED, REJECTED);
+            case EVALUATION -> EnumSet.of(APPROVED, REJECTED);
+            case APPROVED, REJECTED -> EnumSet.noneOf(LoanStatus.class);
+        };
+    }
+
+    public boolean canMoveTo(LoanStatus target) {
+        return next().contains(target);
+    }
+
+    // Statuses that may move to the target, furthest along the workflow first
+    public static List<LoanStatus> sourcesOf(LoanStatus target) {
+        List<LoanStatus> sources = new ArrayList<>();
+        LoanStatus[] all = values();
+        for (int i = all.length - 1; i >= 0; i--) {
+            if (all[i].canMoveTo(target)) sources.add(all[i]);
+        }
+        return sources;
+    }
+
+    // Accepts the label or the constant name in any case; null for blank or unknown values
+    public static LoanStatus fromLabel(String value) {
+        if (value == null || value.isBlank()) return null;
+        for (LoanStatus status : values()) {
+            if (status.label.equalsIgnoreCase(value) || status.name().equalsIgnoreCase(value)) return status;
+        }
+        return null;
+    }
+}
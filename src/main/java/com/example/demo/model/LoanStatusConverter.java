@@ -0,0 +1,22 @@
+package com.example.demo.model;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+// Stores the label rather than the constant name, matching the existing status column values
+@Converter(autoApply = true)
+public class LoanStatusConverter implements AttributeConverter<LoanStatus, String> {
+
+    @Override
+    public String convertToDatabaseColumn(LoanStatus status) {
+        return status == null ? null : status.getLabel();
+    }
+
+    @Override
+    public LoanStatus convertToEntityAttribute(String value) {
+        if (value == null) return null;
+        LoanStatus status = LoanStatus.fromLabel(value);
+        if (status == null) throw new IllegalStateException("Unknown loan status in database: " + value);
+        return status;
+    }
+}
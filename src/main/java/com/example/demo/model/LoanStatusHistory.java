@@ -0,0 +1,43 @@
+package com.example.demo.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+// Append-only audit trail of status transitions. loan_id is a plain column, not a foreign
+// key, so the history outlives deleted applications.
+@Entity
+@Table(name = "loan_status_history", indexes = @Index(name = "idx_status_history_loan", columnList = "loan_id, changed_at"))
+@Data
+@NoArgsConstructor
+public class LoanStatusHistory {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "loan_status_history_seq")
+    @SequenceGenerator(name = "loan_status_history_seq", sequenceName = "loan_status_history_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(name = "loan_id", nullable = false)
+    private Long loanId;
+
+    @Column(nullable = false)
+    private LoanStatus fromStatus;
+
+    @Column(nullable = false)
+    private LoanStatus toStatus;
+
+    private String changedBy; // employee username
+
+    @Column(nullable = false)
+    private LocalDateTime changedAt;
+
+    public LoanStatusHistory(Long loanId, LoanStatus fromStatus, LoanStatus toStatus, String changedBy, LocalDateTime changedAt) {
+        this.loanId = loanId;
+        this.fromStatus = fromStatus;
+        this.toStatus = toStatus;
+        this.changedBy = changedBy;
+        this.changedAt = changedAt;
+    }
+}
@@ -0,0 +1,38 @@
+package com.example.demo.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+// Left behind by a deleted application so delta-sync clients learn to drop it. The id comes
+// from the same sequence as LoanApplication.changeSeq, so it orders with the other changes.
+@Entity
+@Table(name = "loan_tombstones", indexes = @Index(name = "idx_tombstone_user_seq", columnList = "user_id, change_seq"))
+@Data
+@NoArgsConstructor
+public class LoanTombstone {
+
+    @Id
+    @Column(name = "change_seq")
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "loan_change_seq")
+    // Not pooled: the values are a cursor and must follow the order writes happen in
+    @SequenceGenerator(name = "loan_change_seq", sequenceName = "loan_change_seq", allocationSize = 1)
+    private Long changeSeq;
+
+    @Column(name = "loan_id", nullable = false)
+    private Long loanId;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(nullable = false)
+    private LocalDateTime deletedAt;
+
+    public LoanTombstone(Long loanId, Long userId, LocalDateTime deletedAt) {
+        this.loanId = loanId;
+        this.userId = userId;
+        this.deletedAt = deletedAt;
+    }
+}
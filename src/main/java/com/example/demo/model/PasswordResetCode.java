@@ -6,11 +6,16 @@ import lombok.Data;
 import java.time.LocalDateTime;
 
 @Entity
+@Table(name = "password_reset_code", indexes = {
+        @Index(name = "idx_reset_user_code", columnList = "user_id, code"),
+        @Index(name = "idx_reset_expiry", columnList = "expiry_time")
+})
 @Data
 public class PasswordResetCode {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "password_reset_code_seq")
+    @SequenceGenerator(name = "password_reset_code_seq", sequenceName = "password_reset_code_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne(optional = false)
@@ -0,0 +1,35 @@
+package com.example.demo.repository;
+
+import com.example.demo.model.EmailOutbox;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+public interface EmailOutboxRepository extends JpaRepository<EmailOutbox, Long> {
+
+    // Next batch of messages due for (re)delivery, oldest first; includes claims whose lease ran out
+    List<EmailOutbox> findByStatusInAndNextAttemptAtLessThanEqualOrderByIdAsc(Collection<String> statuses,
+                                                                              LocalDateTime now, Limit limit);
+
+    // Takes a due message for one dispatcher: the first UPDATE moves next_attempt_at to the end of
+    // the lease, so a concurrent claim matches nothing (0). Should the sender die, the message is
+    // due again once the lease runs out. Counts the attempt up front, so that one counts too.
+    @Modifying
+    @Transactional
+    @Query("UPDATE EmailOutbox e SET e.status = 'Sending', e.attempts = e.attempts + 1, e.nextAttemptAt = :leaseUntil"
+            + " WHERE e.id = :id AND e.status IN ('Pending', 'Sending') AND e.nextAttemptAt <= :now")
+    int claim(@Param("id") Long id, @Param("now") LocalDateTime now, @Param("leaseUntil") LocalDateTime leaseUntil);
+
+    // Bulk purge of delivered messages past retention
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM EmailOutbox e WHERE e.status = 'Sent' AND e.sentAt < :before")
+    int deleteSentBefore(@Param("before") LocalDateTime before);
+}
@@ -1,18 +1,174 @@
 package com.example.demo.repository;
 
+import com.example.demo.dto.LoanExportRowDTO;
+import com.example.demo.dto.LoanSummaryDTO;
 import com.example.demo.model.LoanApplication;
+import com.example.demo.model.LoanStatus;
 import com.example.demo.model.User;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+public interface LoanApplicationRepository extends JpaRepository<LoanApplication, Long>,
+        JpaSpecificationExecutor<LoanApplication>, LoanApplicationRepositoryCustom {
 
-public interface LoanApplicationRepository extends JpaRepository<LoanApplication, Long> {
+    // Requested amount converted to ALL (1 EUR = 100 ALL, as shown in the reports)
+    String AMOUNT_IN_ALL = "(CASE WHEN l.currency = 'EUR' THEN COALESCE(l.requestedAmount, 0) * 100 "
+            + "ELSE COALESCE(l.requestedAmount, 0) END)";
 
-    // All applications by a client
+    // Shared report filter; a null status means every status
+    String REPORT_FILTER = " WHERE l.createdAt >= :from AND (:status IS NULL OR l.status = :status)";
+
+    // All applications by a client, with applicant and incomes in the same statement
+    @EntityGraph(attributePaths = {"user", "incomes"})
     List<LoanApplication> findByUser(User user);
 
+    // A client's own applications as flat rows, newest first, in one statement
+    @Query("SELECT new com.example.demo.dto.LoanSummaryDTO(l.id, l.requestedAmount, l.currency,"
+            + " l.durationMonths, l.loanType, l.status, l.createdAt)"
+            + " FROM LoanApplication l JOIN l.user u WHERE u.username = :username ORDER BY l.id DESC")
+    List<LoanSummaryDTO> findSummariesByUsername(@Param("username") String username);
+
+    // Single application with applicant and incomes, for the detail views
+    @EntityGraph(attributePaths = {"user", "incomes"})
+    Optional<LoanApplication> findWithDetailsById(Long id);
+
+    // Row-locked for a delete: the owner and status checked cannot change before it commits
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT l FROM LoanApplication l JOIN FETCH l.user WHERE l.id = :id")
+    Optional<LoanApplication> lockById(@Param("id") Long id);
+
     // All applications by status
-    List<LoanApplication> findByStatus(String status);
+    List<LoanApplication> findByStatus(LoanStatus status);
+
+    // Conditional GET validators, read from the index and the row header without loading the loans
+
+    // The detail body also carries the owner's profile, so its fields are part of the version
+    interface LoanVersion {
+        Long getVersion();
+        String getUsername();
+        String getFirstName();
+        String getLastName();
+        String getEmail();
+        String getRole();
+    }
+
+    interface ListVersion {
+        Long getTotal();
+        Long getLastChange();
+    }
+
+    @Query("SELECT l.version AS version, u.username AS username, u.firstName AS firstName,"
+            + " u.lastName AS lastName, u.email AS email, u.role AS role"
+            + " FROM LoanApplication l JOIN l.user u WHERE l.id = :id")
+    Optional<LoanVersion> findVersionById(@Param("id") Long id);
+
+    // Every write moves changeSeq forward and a delete lowers the count, so together they
+    // change whenever the client's list does
+    @Query("SELECT COUNT(l) AS total, MAX(l.changeSeq) AS lastChange"
+            + " FROM LoanApplication l JOIN l.user u WHERE u.username = :username")
+    ListVersion findListVersionByUsername(@Param("username") String username);
+
+    // What a status change needs to know about a loan: where it stands, the version its guarded
+    // UPDATE is conditioned on, and what the rollup counts it under. Read without locking.
+    interface StatusSnapshot {
+        Long getId();
+        LoanStatus getStatus();
+        Long getVersion();
+        Long getChangeSeq();
+        LocalDateTime getCreatedAt();
+        String getLoanType();
+        String getCurrency();
+        Double getRequestedAmount();
+    }
+
+    @Query("SELECT l.id AS id, l.status AS status, l.version AS version, l.changeSeq AS changeSeq,"
+            + " l.createdAt AS createdAt, l.loanType AS loanType, l.currency AS currency,"
+            + " l.requestedAmount AS requestedAmount FROM LoanApplication l WHERE l.id IN :ids")
+    List<StatusSnapshot> findStatusSnapshots(@Param("ids") Collection<Long> ids);
+
+    // Delta sync: every write stamps the loan with the next value of this sequence
+    @Query(value = "SELECT loan_change_seq.NEXTVAL FROM dual", nativeQuery = true)
+    long nextChangeSeq();
+
+    // Loans written after the cursor, in write order; the applicant is fetched, incomes are batch-loaded
+    @EntityGraph(attributePaths = "user")
+    List<LoanApplication> findByChangeSeqGreaterThanOrderByChangeSeqAsc(Long since, Limit limit);
+
+    // A client's own loans written after the cursor, mapped to summaries
+    List<LoanApplication> findByUserUsernameAndChangeSeqGreaterThanOrderByChangeSeqAsc(String username, Long since, Limit limit);
 
     // All applications by user and status
-    List<LoanApplication> findByUserAndStatus(User user, String status);
+    List<LoanApplication> findByUserAndStatus(User user, LoanStatus status);
+
+    // Application count per status, seeds the in-memory summary counters
+    interface StatusCount {
+        LoanStatus getStatus();
+        Long getTotal();
+    }
+
+    @Query("SELECT l.status AS status, COUNT(l) AS total FROM LoanApplication l GROUP BY l.status")
+    List<StatusCount> countByStatus();
+
+    // Report aggregates, computed in the database so the payload stays fixed-size. Status, trend
+    // and type totals come from the loan_daily_stats rollup (LoanDailyStatsRepository).
+
+    interface StatusTotal {
+        LoanStatus getStatus();
+        Long getTotal();
+        Double getVolume();
+    }
+
+    interface MonthlyStatusTotal {
+        Integer getCreatedYear();
+        Integer getCreatedMonth();
+        LoanStatus getStatus();
+        Long getTotal();
+        Double getVolume();
+    }
+
+    interface TypeTotal {
+        String getLoanType();
+        Long getTotal();
+    }
+
+    interface AmountRanges {
+        Long getUpTo20k();
+        Long getUpTo100k();
+        Long getUpTo300k();
+        Long getUpTo1m();
+        Long getAbove1m();
+    }
+
+    @Query("SELECT SUM(CASE WHEN " + AMOUNT_IN_ALL + " <= 20000 THEN 1 ELSE 0 END) AS upTo20k,"
+            + " SUM(CASE WHEN " + AMOUNT_IN_ALL + " > 20000 AND " + AMOUNT_IN_ALL + " <= 100000 THEN 1 ELSE 0 END) AS upTo100k,"
+            + " SUM(CASE WHEN " + AMOUNT_IN_ALL + " > 100000 AND " + AMOUNT_IN_ALL + " <= 300000 THEN 1 ELSE 0 END) AS upTo300k,"
+            + " SUM(CASE WHEN " + AMOUNT_IN_ALL + " > 300000 AND " + AMOUNT_IN_ALL + " <= 1000000 THEN 1 ELSE 0 END) AS upTo1m,"
+            + " SUM(CASE WHEN " + AMOUNT_IN_ALL + " > 1000000 THEN 1 ELSE 0 END) AS above1m"
+            + " FROM LoanApplication l" + REPORT_FILTER)
+    AmountRanges countByAmountRange(@Param("from") LocalDateTime from, @Param("status") LoanStatus status);
+
+    // Flat export rows streamed straight from the cursor; scalar projections are not
+    // managed entities, so the persistence context does not grow with the export
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT new com.example.demo.dto.LoanExportRowDTO(l.id, u.firstName, u.lastName, l.requestedAmount,"
+            + " l.currency, l.durationMonths, l.loanType, l.status, l.createdAt)"
+            + " FROM LoanApplication l JOIN l.user u" + REPORT_FILTER
+            + " ORDER BY l.id DESC")
+    Stream<LoanExportRowDTO> streamExportRows(@Param("from") LocalDateTime from, @Param("status") LoanStatus status);
 }
@@ -0,0 +1,19 @@
+package com.example.demo.repository;
+
+import com.example.demo.model.LoanStatus;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+public interface LoanApplicationRepositoryCustom {
+    // One guarded UPDATE: moves the loan only if it is still at the given version; false when
+    // another write got there first. The loan's cache entry is evicted when it moves.
+    boolean moveStatus(Long id, Long version, LoanStatus target, LocalDateTime now);
+
+    // The set-based form for bulk decisions: moves the listed loans that are still in a source status
+    // and still carry a change_seq the caller's snapshot saw (0 standing for none), stamps them all
+    // with changeSeq, and returns the ids that moved
+    List<Long> moveStatuses(Collection<Long> ids, Collection<Long> seenChangeSeqs, Collection<LoanStatus> sources,
+                            LoanStatus target, long changeSeq, LocalDateTime now);
+}
@@ -0,0 +1,90 @@
+package com.example.demo.repository;
+
+import com.example.demo.model.LoanApplication;
+import com.example.demo.model.LoanStatus;
+import jakarta.persistence.Cache;
+import jakarta.persistence.EntityManager;
+import org.hibernate.query.NativeQuery;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+public class LoanApplicationRepositoryCustomImpl implements LoanApplicationRepositoryCustom {
+
+    // Not a table. As the statement's only query space it keeps Hibernate from clearing the whole
+    // loans region (and loan-incomes with it) after every status change; the moved loans are
+    // evicted one by one instead.
+    private static final String STATUS_MOVES = "loan_status_moves";
+
+    private static final String MOVE_ONE = "UPDATE loan_applications"
+            + " SET status = :target, version = version + 1, change_seq = loan_change_seq.NEXTVAL, updated_at = :now"
+            + " WHERE id = :id AND version = :version";
+
+    // change_seq values are never reused and a write stamps all of its rows at once, so a row still
+    // carrying a value the snapshot saw for one of the listed loans is exactly as the snapshot saw it.
+    // Rows from before change_seq existed are 0 until their first write.
+    private static final String MOVE_ALL = "UPDATE loan_applications"
+            + " SET status = :target, version = version + 1, change_seq = :changeSeq, updated_at = :now"
+            + " WHERE id IN (:ids) AND status IN (:sources) AND COALESCE(change_seq, 0) IN (:seen)";
+
+    private final EntityManager entityManager;
+
+    public LoanApplicationRepositoryCustomImpl(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    @Override
+    public boolean moveStatus(Long id, Long version, LoanStatus target, LocalDateTime now) {
+        int rows = entityManager.createNativeQuery(MOVE_ONE)
+                .unwrap(NativeQuery.class)
+                .addSynchronizedQuerySpace(STATUS_MOVES)
+                .setParameter("target", target.getLabel())
+                .setParameter("now", now)
+                .setParameter("id", id)
+                .setParameter("version", version)
+                .executeUpdate();
+        if (rows == 0) return false;
+        evict(List.of(id));
+        return true;
+    }
+
+    @Override
+    public List<Long> moveStatuses(Collection<Long> ids, Collection<Long> seenChangeSeqs, Collection<LoanStatus> sources,
+                                   LoanStatus target, long changeSeq, LocalDateTime now) {
+        int rows = entityManager.createNativeQuery(MOVE_ALL)
+                .unwrap(NativeQuery.class)
+                .addSynchronizedQuerySpace(STATUS_MOVES)
+                .setParameter("target", target.getLabel())
+                .setParameter("changeSeq", changeSeq)
+                .setParameter("now", now)
+                .setParameterList("ids", ids)
+                .setParameterList("sources", sources.stream().map(LoanStatus::getLabel).toList())
+                .setParameterList("seen", seenChangeSeqs)
+                .executeUpdate();
+        // Usually all of them; otherwise the new change_seq tells which ones (they are locked by now)
+        List<Long> moved = rows == ids.size() ? List.copyOf(ids) : entityManager.createQuery(
+                        "SELECT l.id FROM LoanApplication l WHERE l.id IN :ids AND l.changeSeq = :changeSeq", Long.class)
+                .setParameter("ids", ids)
+                .setParameter("changeSeq", changeSeq)
+                .getResultList();
+        if (!moved.isEmpty()) evict(moved);
+        return moved;
+    }
+
+    // Right away for the rest of this transaction, and again after commit in case a concurrent
+    // reader put the old row back in the meantime
+    private void evict(Collection<Long> ids) {
+        Cache cache = entityManager.getEntityManagerFactory().getCache();
+        ids.forEach(id -> cache.evict(LoanApplication.class, id));
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) return;
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                ids.forEach(id -> cache.evict(LoanApplication.class, id));
+            }
+        });
+    }
+}
@@ -0,0 +1,96 @@
+package com.example.demo.repository;
+
+import com.example.demo.model.LoanDailyStats;
+import com.example.demo.model.LoanDailyStatsId;
+import com.example.demo.model.LoanStatus;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface LoanDailyStatsRepository extends JpaRepository<LoanDailyStats, LoanDailyStatsId>, LoanDailyStatsRepositoryCustom {
+
+    interface LoanDay {
+        Integer getCreatedYear();
+        Integer getCreatedMonth();
+        Integer getCreatedDay();
+
+        default LocalDate toLocalDate() {
+            return LocalDate.of(getCreatedYear(), getCreatedMonth(), getCreatedDay());
+        }
+    }
+
+    // Volume converted to ALL (1 EUR = 100 ALL), like LoanApplicationRepository.AMOUNT_IN_ALL
+    String VOLUME_IN_ALL = "(CASE WHEN s.id.currency = 'EUR' THEN s.volume * 100 ELSE s.volume END)";
+
+    String REPORT_FILTER = " WHERE s.id.day >= :from AND (:status IS NULL OR s.id.status = :status)";
+
+    @Modifying
+    @Query("UPDATE LoanDailyStats s SET s.applications = s.applications + :applications, s.volume = s.volume + :volume"
+            + " WHERE s.id.day = :day AND s.id.loanType = :loanType AND s.id.currency = :currency AND s.id.status = :status")
+    int increment(@Param("day") LocalDate day,
+                  @Param("loanType") String loanType,
+                  @Param("currency") String currency,
+                  @Param("status") LoanStatus status,
+                  @Param("applications") long applications,
+                  @Param("volume") double volume);
+
+    // Days that have loans or rollup rows; the rebuild goes through them one at a time
+    @Query("SELECT DISTINCT year(l.createdAt) AS createdYear, month(l.createdAt) AS createdMonth, day(l.createdAt) AS createdDay"
+            + " FROM LoanApplication l WHERE l.createdAt IS NOT NULL")
+    List<LoanDay> findLoanDays();
+
+    @Query("SELECT DISTINCT s.id.day FROM LoanDailyStats s")
+    List<LocalDate> findDays();
+
+    // Recomputes one day from loan_applications and writes only the rows that differ, so a
+    // rebuild that finds nothing to correct locks nothing. Keys match LoanDailyRollup's normalization.
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "loan_daily_stats"))
+    @Query(value = "MERGE INTO loan_daily_stats s USING ("
+            + " SELECT TRUNC(created_at) AS stat_day, NVL(loan_type, '-') AS loan_type, NVL(currency, '-') AS currency,"
+            + " status, COUNT(*) AS applications, NVL(SUM(requested_amount), 0) AS volume"
+            + " FROM loan_applications WHERE created_at >= :from AND created_at < :to AND status IS NOT NULL"
+            + " GROUP BY TRUNC(created_at), NVL(loan_type, '-'), NVL(currency, '-'), status) t"
+            + " ON (s.stat_day = t.stat_day AND s.loan_type = t.loan_type AND s.currency = t.currency AND s.status = t.status)"
+            + " WHEN MATCHED THEN UPDATE SET s.applications = t.applications, s.volume = t.volume"
+            + " WHERE s.applications <> t.applications OR ABS(s.volume - t.volume) > 0.005"
+            + " WHEN NOT MATCHED THEN INSERT (stat_day, loan_type, currency, status, applications, volume)"
+            + " VALUES (t.stat_day, t.loan_type, t.currency, t.status, t.applications, t.volume)", nativeQuery = true)
+    int mergeFromLoans(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+
+    // Rows of the day whose key no longer has any loans
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "loan_daily_stats"))
+    @Query(value = "DELETE FROM loan_daily_stats s WHERE s.stat_day = :day AND NOT EXISTS ("
+            + " SELECT 1 FROM loan_applications l WHERE l.created_at >= :from AND l.created_at < :to"
+            + " AND l.status = s.status AND NVL(l.loan_type, '-') = s.loan_type AND NVL(l.currency, '-') = s.currency)",
+            nativeQuery = true)
+    int deleteStale(@Param("day") LocalDate day, @Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+
+    // Report aggregates read from the rollup: a few rows per day instead of one per loan
+
+    @Query("SELECT s.id.status AS status, SUM(s.applications) AS total, SUM(" + VOLUME_IN_ALL + ") AS volume"
+            + " FROM LoanDailyStats s" + REPORT_FILTER
+            + " GROUP BY s.id.status")
+    List<LoanApplicationRepository.StatusTotal> sumByStatus(@Param("from") LocalDate from, @Param("status") LoanStatus status);
+
+    @Query("SELECT year(s.id.day) AS createdYear, month(s.id.day) AS createdMonth, s.id.status AS status,"
+            + " SUM(s.applications) AS total, SUM(" + VOLUME_IN_ALL + ") AS volume"
+            + " FROM LoanDailyStats s" + REPORT_FILTER
+            + " GROUP BY year(s.id.day), month(s.id.day), s.id.status")
+    List<LoanApplicationRepository.MonthlyStatusTotal> sumByMonthAndStatus(@Param("from") LocalDate from,
+                                                                           @Param("status") LoanStatus status);
+
+    @Query("SELECT s.id.loanType AS loanType, SUM(s.applications) AS total"
+            + " FROM LoanDailyStats s" + REPORT_FILTER
+            + " GROUP BY s.id.loanType HAVING SUM(s.applications) > 0")
+    List<LoanApplicationRepository.TypeTotal> countByLoanType(@Param("from") LocalDate from, @Param("status") LoanStatus status);
+}
@@ -0,0 +1,8 @@
+package com.example.demo.repository;
+
+import com.example.demo.model.LoanDailyStatsId;
+
+public interface LoanDailyStatsRepositoryCustom {
+    // Zero row for a key seen for the first time; false when it exists already
+    boolean insertIfAbsent(LoanDailyStatsId key);
+}
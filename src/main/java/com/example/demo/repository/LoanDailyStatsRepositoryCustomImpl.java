@@ -0,0 +1,38 @@
+package com.example.demo.repository;
+
+import com.example.demo.model.LoanDailyStatsId;
+import jakarta.persistence.EntityManager;
+import org.hibernate.Session;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLIntegrityConstraintViolationException;
+
+public class LoanDailyStatsRepositoryCustomImpl implements LoanDailyStatsRepositoryCustom {
+
+    private static final String INSERT = "INSERT INTO loan_daily_stats"
+            + " (stat_day, loan_type, currency, status, applications, volume) VALUES (?, ?, ?, ?, 0, 0)";
+
+    private final EntityManager entityManager;
+
+    public LoanDailyStatsRepositoryCustomImpl(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    // Plain JDBC on the caller's connection: a duplicate key from a concurrent first insert stays
+    // a failed statement (Oracle and H2 keep the transaction usable), whereas through a JPA query
+    // Hibernate would mark the caller's transaction rollback-only.
+    @Override
+    public boolean insertIfAbsent(LoanDailyStatsId key) {
+        return entityManager.unwrap(Session.class).doReturningWork(connection -> {
+            try (PreparedStatement insert = connection.prepareStatement(INSERT)) {
+                insert.setObject(1, key.getDay());
+                insert.setString(2, key.getLoanType());
+                insert.setString(3, key.getCurrency());
+                insert.setString(4, key.getStatus().getLabel());
+                return insert.executeUpdate() == 1;
+            } catch (SQLIntegrityConstraintViolationException e) {
+                return false;
+            }
+        });
+    }
+}
@@ -0,0 +1,78 @@
+package com.example.demo.repository;
+
+import com.example.demo.model.LoanApplication;
+import com.example.demo.model.LoanStatus;
+import com.example.demo.model.User;
+import jakarta.persistence.criteria.Join;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDate;
+
+// Building blocks for the employee loan search; null arguments match everything
+public class LoanSpecifications {
+
+    private static final char LIKE_ESCAPE = '\\';
+
+    public static Specification<LoanApplication> hasStatus(LoanStatus status) {
+        return (root, query, cb) -> status == null ? null : cb.equal(root.get("status"), status);
+    }
+
+    public static Specification<LoanApplication> hasLoanType(String loanType) {
+        return (root, query, cb) -> loanType == null ? null : cb.equal(root.get("loanType"), loanType);
+    }
+
+    public static Specification<LoanApplication> hasCurrency(String currency) {
+        return (root, query, cb) -> currency == null ? null : cb.equal(root.get("currency"), currency);
+    }
+
+    public static Specification<LoanApplication> amountBetween(Double min, Double max) {
+        return (root, query, cb) -> {
+            if (min != null && max != null) return cb.between(root.get("requestedAmount"), min, max);
+            if (min != null) return cb.greaterThanOrEqualTo(root.get("requestedAmount"), min);
+            if (max != null) return cb.lessThanOrEqualTo(root.get("requestedAmount"), max);
+            return null;
+        };
+    }
+
+    public static Specification<LoanApplication> createdBetween(LocalDate from, LocalDate to) {
+        return (root, query, cb) -> {
+            if (from != null && to != null) {
+                return cb.and(cb.greaterThanOrEqualTo(root.get("createdAt"), from.atStartOfDay()),
+                        cb.lessThan(root.get("createdAt"), to.plusDays(1).atStartOfDay()));
+            }
+            if (from != null) return cb.greaterThanOrEqualTo(root.get("createdAt"), from.atStartOfDay());
+            if (to != null) return cb.lessThan(root.get("createdAt"), to.plusDays(1).atStartOfDay());
+            return null;
+        };
+    }
+
+    // Prefix match on LOWER(name), served by the function-based indexes in
+    // db/applicant-name-indexes-oracle.sql; a leading wildcard would force a full scan.
+    // % and _ in the input are matched literally.
+    public static Specification<LoanApplication> applicantStartsWith(String name) {
+        return (root, query, cb) -> {
+            if (name == null) return null;
+            Join<LoanApplication, User> user = root.join("user");
+            String pattern = escapeLike(name.toLowerCase()) + "%";
+            return cb.or(cb.like(cb.lower(user.get("firstName")), pattern, LIKE_ESCAPE),
+                    cb.like(cb.lower(user.get("lastName")), pattern, LIKE_ESCAPE));
+        };
+    }
+
+    static String escapeLike(String value) {
+        StringBuilder escaped = new StringBuilder(value.length());
+        for (char c : value.toCharArray()) {
+            if (c == LIKE_ESCAPE || c == '%' || c == '_') escaped.append(LIKE_ESCAPE);
+            escaped.append(c);
+        }
+        return escaped.toString();
+    }
+
+    // Keyset condition: rows strictly past the cursor in the requested direction
+    public static Specification<LoanApplication> idAfter(Long afterId, boolean descending) {
+        return (root, query, cb) -> {
+            if (afterId == null) return null;
+            return descending ? cb.lessThan(root.get("id"), afterId) : cb.greaterThan(root.get("id"), afterId);
+        };
+    }
+}
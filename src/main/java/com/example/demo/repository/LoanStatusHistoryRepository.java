@@ -0,0 +1,7 @@
+package com.example.demo.repository;
+
+import com.example.demo.model.LoanStatusHistory;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface LoanStatusHistoryRepository extends JpaRepository<LoanStatusHistory, Long> {
+}
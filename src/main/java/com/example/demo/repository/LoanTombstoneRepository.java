@@ -0,0 +1,18 @@
+package com.example.demo.repository;
+
+import com.example.demo.model.LoanTombstone;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+
+public interface LoanTombstoneRepository extends JpaRepository<LoanTombstone, Long> {
+
+    List<LoanTombstone> findByChangeSeqGreaterThanOrderByChangeSeqAsc(Long since, Limit limit);
+
+    @Query("SELECT t FROM LoanTombstone t WHERE t.userId = (SELECT u.id FROM User u WHERE u.username = :username)"
+            + " AND t.changeSeq > :since ORDER BY t.changeSeq")
+    List<LoanTombstone> findByUsernameSince(@Param("username") String username, @Param("since") Long since, Limit limit);
+}
@@ -2,9 +2,21 @@ package com.example.demo.repository;
 
 import com.example.demo.model.PasswordResetCode;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
 
 @Repository
 public interface PasswordResetCodeRepository extends JpaRepository<PasswordResetCode, Long> {
     PasswordResetCode findByUserEmailAndCode(String email, String code);
-}
\ No newline at end of file
+
+    // Bulk purge of codes that can no longer be redeemed
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM PasswordResetCode c WHERE c.used = true OR c.expiryTime < :now")
+    int deleteUsedOrExpired(@Param("now") LocalDateTime now);
+}
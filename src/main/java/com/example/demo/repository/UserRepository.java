@@ -2,9 +2,8 @@ package com.example.demo.repository;
 
 import com.example.demo.model.User;
 import org.springframework.data.jpa.repository.JpaRepository;
-import java.util.Optional;
 
-public interface UserRepository extends JpaRepository<User, Long> {
-    Optional<User> findByUsername(String username);
+// findByUsername comes from UserRepositoryCustom and is served from the natural-id cache
+public interface UserRepository extends JpaRepository<User, Long>, UserRepositoryCustom {
     User findByEmail(String email);
 }
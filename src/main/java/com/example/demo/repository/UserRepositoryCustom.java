@@ -0,0 +1,9 @@
+package com.example.demo.repository;
+
+import com.example.demo.model.User;
+
+import java.util.Optional;
+
+public interface UserRepositoryCustom {
+    Optional<User> findByUsername(String username);
+}
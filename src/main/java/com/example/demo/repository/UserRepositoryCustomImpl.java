@@ -0,0 +1,27 @@
+package com.example.demo.repository;
+
+import com.example.demo.model.User;
+import jakarta.persistence.EntityManager;
+import org.hibernate.Session;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Optional;
+
+public class UserRepositoryCustomImpl implements UserRepositoryCustom {
+
+    private final EntityManager entityManager;
+
+    public UserRepositoryCustomImpl(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    // Username -> id from the natural-id cache, then the user from the entity cache; a derived
+    // query would go to the database every time. The transaction keeps the unwrapped session
+    // open for callers that are not in one already (the JWT filter, login).
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<User> findByUsername(String username) {
+        if (username == null) return Optional.empty();
+        return entityManager.unwrap(Session.class).bySimpleNaturalId(User.class).loadOptional(username);
+    }
+}
@@ -1,7 +1,10 @@
 package com.example.demo.security;
 
+import com.example.demo.config.JwtProperties;
 import com.example.demo.model.User;
 import com.example.demo.repository.UserRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import org.springframework.security.core.userdetails.*;
 import org.springframework.stereotype.Service;
 
@@ -9,13 +12,29 @@ import org.springframework.stereotype.Service;
 public class CustomUserDetailsService implements UserDetailsService {
 
     private final UserRepository userRepo;
+    // Bounded, expiring cache in front of the users table; null when disabled
+    private final Cache<String, UserDetails> cache;
 
-    public CustomUserDetailsService(UserRepository userRepo) {
+    public CustomUserDetailsService(UserRepository userRepo, JwtProperties jwtProperties) {
         this.userRepo = userRepo;
+        JwtProperties.UserCache cacheConfig = jwtProperties.getUserCache();
+        this.cache = cacheConfig.getTtl().isZero() ? null : Caffeine.newBuilder()
+                .maximumSize(cacheConfig.getMaxSize())
+                .expireAfterWrite(cacheConfig.getTtl())
+                .build();
     }
 
     @Override
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
+        return cache == null ? loadFromDatabase(username) : cache.get(username, this::loadFromDatabase);
+    }
+
+    // Called whenever a user's profile or password changes
+    public void evict(String username) {
+        if (cache != null) cache.invalidate(username);
+    }
+
+    private UserDetails loadFromDatabase(String username) {
         User user = userRepo.findByUsername(username)
                 .orElseThrow(() -> new UsernameNotFoundException("User not found: " + username));
 
@@ -27,4 +46,4 @@ public class CustomUserDetailsService implements UserDetailsService {
                 .authorities(formattedRole)
                 .build();
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,98 @@
+package com.example.demo.security;
+
+import com.example.demo.config.LoginProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Counts recent failed logins per username and locks the name for a while once the limit
+ * is reached, so locked accounts are refused before any BCrypt work. State is split over
+ * lock stripes to avoid a single contended monitor; each stripe keeps at most
+ * maxTrackedPerStripe names, dropping the least recently touched one first.
+ */
+@Component
+public class FailedLoginTracker {
+
+    private static final int STRIPES = 64;
+
+    private static final class Attempts {
+        int failures;
+        long windowStart;
+        long lockedUntil;
+    }
+
+    private final Map<String, Attempts>[] stripes;
+    private final int maxFailures;
+    private final long windowNanos;
+    private final long lockNanos;
+
+    private final Counter lockouts;
+    private final Counter shortCircuits;
+
+    @SuppressWarnings("unchecked")
+    public FailedLoginTracker(LoginProperties properties, MeterRegistry meterRegistry) {
+        LoginProperties.Lockout config = properties.getLockout();
+        this.maxFailures = config.getMaxFailures();
+        this.windowNanos = config.getWindow().toNanos();
+        this.lockNanos = config.getDuration().toNanos();
+
+        int maxPerStripe = config.getMaxTrackedPerStripe();
+        this.stripes = new Map[STRIPES];
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, Attempts> eldest) {
+                    return size() > maxPerStripe;
+                }
+            };
+        }
+
+        this.lockouts = meterRegistry.counter("login.lockout.locked");
+        this.shortCircuits = meterRegistry.counter("login.lockout.short_circuited");
+    }
+
+    public boolean isLocked(String username) {
+        Map<String, Attempts> stripe = stripeFor(username);
+        synchronized (stripe) {
+            Attempts attempts = stripe.get(username);
+            if (attempts != null && attempts.lockedUntil - System.nanoTime() > 0) {
+                shortCircuits.increment();
+                return true;
+            }
+            return false;
+        }
+    }
+
+    public void recordFailure(String username) {
+        long now = System.nanoTime();
+        Map<String, Attempts> stripe = stripeFor(username);
+        synchronized (stripe) {
+            Attempts attempts = stripe.computeIfAbsent(username, k -> new Attempts());
+            if (attempts.failures == 0 || now - attempts.windowStart > windowNanos) {
+                attempts.failures = 0;
+                attempts.windowStart = now;
+            }
+            if (++attempts.failures >= maxFailures) {
+                attempts.failures = 0;
+                attempts.lockedUntil = now + lockNanos;
+                lockouts.increment();
+            }
+        }
+    }
+
+    public void recordSuccess(String username) {
+        Map<String, Attempts> stripe = stripeFor(username);
+        synchronized (stripe) {
+            stripe.remove(username);
+        }
+    }
+
+    private Map<String, Attempts> stripeFor(String username) {
+        int hash = username == null ? 0 : username.hashCode();
+        return stripes[(hash ^ (hash >>> 16)) & (STRIPES - 1)];
+    }
+}
@@ -1,6 +1,10 @@
 package com.example.demo.security;
 
+import com.example.demo.config.JwtProperties;
 import com.example.demo.service.JwtService;
+import io.jsonwebtoken.Claims;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.*;
@@ -8,6 +12,8 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.lang.NonNull;
 import org.springframework.security.authentication.*;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.*;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
@@ -15,6 +21,8 @@ import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 @Component
 public class JwtAuthFilter extends OncePerRequestFilter {
@@ -23,10 +31,18 @@ public class JwtAuthFilter extends OncePerRequestFilter {
 
     private final JwtService jwtService;
     private final CustomUserDetailsService userDetailsService;
+    private final boolean stateless;
+    private final Timer authenticated;
+    private final Timer rejected;
 
-    public JwtAuthFilter(JwtService jwtService, CustomUserDetailsService userDetailsService) {
+    public JwtAuthFilter(JwtService jwtService, CustomUserDetailsService userDetailsService, JwtProperties jwtProperties,
+                         MeterRegistry meterRegistry) {
         this.jwtService = jwtService;
         this.userDetailsService = userDetailsService;
+        this.stateless = jwtProperties.isStateless();
+        // Time spent authenticating the token only, not the rest of the filter chain
+        this.authenticated = Timer.builder("jwt.filter").tag("outcome", "authenticated").register(meterRegistry);
+        this.rejected = Timer.builder("jwt.filter").tag("outcome", "rejected").register(meterRegistry);
     }
 
     @Override
@@ -49,27 +65,44 @@ public class JwtAuthFilter extends OncePerRequestFilter {
             return;
         }
 
+        long start = System.nanoTime();
+        Timer outcome = rejected;
         try {
             final String token = authHeader.substring(7);
-            final String username = jwtService.extractUsername(token);
+            // Single verification per request; throws if the signature or expiry is invalid
+            final Claims claims = jwtService.parseClaims(token);
+            final String username = claims.getSubject();
 
             if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-                UserDetails userDetails = userDetailsService.loadUserByUsername(username);
-
-                if (jwtService.isTokenValid(token)) {
-                    UsernamePasswordAuthenticationToken authToken =
-                            new UsernamePasswordAuthenticationToken(
-                                    userDetails,
-                                    null,
-                                    userDetails.getAuthorities()
-                            );
-
-                    authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
-                    SecurityContextHolder.getContext().setAuthentication(authToken);
+                JwtPrincipal principal = new JwtPrincipal(username, claims.get("role", String.class));
+
+                UsernamePasswordAuthenticationToken authToken;
+                if (stateless) {
+                    // The signed role claim is trusted as-is, so no database lookup is needed
+                    List<GrantedAuthority> authorities = principal.getRole() == null
+                            ? List.of()
+                            : List.of(new SimpleGrantedAuthority("ROLE_" + principal.getRole().toUpperCase()));
+                    authToken = new UsernamePasswordAuthenticationToken(principal, null, authorities);
+                } else {
+                    UserDetails userDetails = userDetailsService.loadUserByUsername(username);
+                    authToken = new UsernamePasswordAuthenticationToken(
+                            userDetails,
+                            null,
+                            userDetails.getAuthorities()
+                    );
                 }
+
+                authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+                SecurityContextHolder.getContext().setAuthentication(authToken);
+
+                // Controllers read the verified claims from here instead of re-parsing the token
+                request.setAttribute(JwtPrincipal.REQUEST_ATTRIBUTE, principal);
+                outcome = authenticated;
             }
         } catch (Exception e) {
             logger.warn("JWT token processing failed: {}", e.getMessage());
+        } finally {
+            outcome.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
         }
 
         filterChain.doFilter(request, response);
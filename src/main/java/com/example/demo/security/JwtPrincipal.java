@@ -0,0 +1,27 @@
+package com.example.demo.security;
+
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.security.Principal;
+
+// Verified token claims, parsed once by JwtAuthFilter and reused by the controllers
+@Getter
+@AllArgsConstructor
+public class JwtPrincipal implements Principal {
+
+    public static final String REQUEST_ATTRIBUTE = JwtPrincipal.class.getName();
+
+    private final String username;
+    private final String role;
+
+    @Override
+    public String getName() {
+        return username;
+    }
+
+    public static JwtPrincipal from(HttpServletRequest request) {
+        return (JwtPrincipal) request.getAttribute(REQUEST_ATTRIBUTE);
+    }
+}
@@ -0,0 +1,103 @@
+package com.example.demo.security;
+
+import com.example.demo.config.LoginProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs BCrypt checks on a small fixed pool with a bounded queue, so a burst of logins
+ * cannot take more than its share of CPU from the loan APIs. Callers that cannot get
+ * a worker within the queue timeout are turned away with LoginThrottledException.
+ */
+@Component
+public class LoginAdmissionControl {
+
+    // Upper bound on a single BCrypt check once it has started
+    private static final long HASH_GRACE_NANOS = TimeUnit.SECONDS.toNanos(5);
+
+    private final BCryptPasswordEncoder passwordEncoder;
+    private final ThreadPoolExecutor executor;
+    private final long queueTimeoutNanos;
+
+    private final Counter admitted;
+    private final Counter rejected;
+    private final Counter expired;
+
+    public LoginAdmissionControl(BCryptPasswordEncoder passwordEncoder, LoginProperties properties,
+                                 MeterRegistry meterRegistry) {
+        LoginProperties.Admission config = properties.getAdmission();
+        int threads = config.getThreads() > 0
+                ? config.getThreads()
+                : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+
+        this.passwordEncoder = passwordEncoder;
+        this.queueTimeoutNanos = config.getQueueTimeout().toNanos();
+        AtomicInteger threadIds = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(config.getQueueCapacity()),
+                r -> {
+                    Thread t = new Thread(r, "login-verify-" + threadIds.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+
+        this.admitted = meterRegistry.counter("login.admission.admitted");
+        this.rejected = meterRegistry.counter("login.admission.rejected");
+        this.expired = meterRegistry.counter("login.admission.expired");
+        Gauge.builder("login.admission.active", executor, ThreadPoolExecutor::getActiveCount).register(meterRegistry);
+        Gauge.builder("login.admission.queued", executor, e -> e.getQueue().size()).register(meterRegistry);
+    }
+
+    public boolean matches(String rawPassword, String encodedPassword) {
+        // Whoever sets this first decides: the worker starting the check, or the caller giving up on it
+        AtomicBoolean claimed = new AtomicBoolean();
+        CountDownLatch started = new CountDownLatch(1);
+        Future<Boolean> verification;
+        try {
+            verification = executor.submit(() -> {
+                // The caller has already been answered with 429; don't burn a hash on it
+                if (!claimed.compareAndSet(false, true)) throw new CancellationException();
+                started.countDown();
+                return passwordEncoder.matches(rawPassword, encodedPassword);
+            });
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            throw new LoginThrottledException("Login verification queue is full");
+        }
+
+        try {
+            // The queue timeout bounds the wait for a worker; the grace applies only once one has the check
+            if (!started.await(queueTimeoutNanos, TimeUnit.NANOSECONDS) && claimed.compareAndSet(false, true)) {
+                verification.cancel(false);
+                expired.increment();
+                throw new LoginThrottledException("Timed out waiting for login verification");
+            }
+            boolean result = verification.get(HASH_GRACE_NANOS, TimeUnit.NANOSECONDS);
+            admitted.increment();
+            return result;
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Password verification failed", e.getCause());
+        } catch (TimeoutException e) {
+            expired.increment();
+            throw new LoginThrottledException("Timed out waiting for login verification");
+        } catch (InterruptedException e) {
+            verification.cancel(false);
+            Thread.currentThread().interrupt();
+            throw new LoginThrottledException("Interrupted while waiting for login verification");
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,8 @@
+package com.example.demo.security;
+
+// Login refused before checking the password: verification capacity exhausted or account locked
+public class LoginThrottledException extends RuntimeException {
+    public LoginThrottledException(String message) {
+        super(message);
+    }
+}
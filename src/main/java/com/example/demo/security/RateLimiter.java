@@ -0,0 +1,105 @@
+package com.example.demo.security;
+
+import com.example.demo.config.RateLimitProperties;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+@Component
+public class RateLimiter implements MeterBinder {
+
+    public static final String RESET_CODE_IP = "reset-code-ip";
+    public static final String RESET_CODE_EMAIL = "reset-code-email";
+    public static final String LOGIN_IP = "login-ip";
+    public static final String LOGIN_USER = "login-user";
+
+    private record Policy(double capacity, long nanosPerToken, LongAdder allowed, LongAdder denied) {}
+
+    // Immutable bucket state; each decision replaces it inside a single compute() call
+    private record Bucket(Policy policy, double tokens, long updatedAt, boolean granted) {}
+
+    private final Map<String, Policy> policies = new ConcurrentHashMap<>();
+    private final Map<String, Bucket> buckets = new ConcurrentHashMap<>();
+    private final LongSupplier nanoTime;
+
+    @Autowired
+    public RateLimiter(RateLimitProperties properties) {
+        this(properties, System::nanoTime);
+    }
+
+    // Tests drive the clock by hand
+    RateLimiter(RateLimitProperties properties, LongSupplier nanoTime) {
+        this.nanoTime = nanoTime;
+        properties.getPolicies().forEach((name, config) -> policies.put(name, new Policy(
+                config.getCapacity(), config.getRefillPeriod().toNanos(), new LongAdder(), new LongAdder())));
+    }
+
+    public boolean tryAcquire(String policyName, String key) {
+        Policy policy = policies.get(policyName);
+        if (policy == null) throw new IllegalStateException("Unknown rate limit policy: " + policyName);
+
+        long now = nanoTime.getAsLong();
+        Bucket bucket = buckets.compute(policyName + '|' + (key == null ? "" : key), (k, current) -> {
+            double tokens = current == null
+                    ? policy.capacity()
+                    : Math.min(policy.capacity(), current.tokens() + (now - current.updatedAt()) / (double) policy.nanosPerToken());
+            return tokens >= 1
+                    ? new Bucket(policy, tokens - 1, now, true)
+                    : new Bucket(policy, tokens, now, false);
+        });
+
+        (bucket.granted() ? policy.allowed() : policy.denied()).increment();
+        return bucket.granted();
+    }
+
+    // A bucket that has refilled completely behaves exactly like a missing one, so it can go.
+    // This keeps memory proportional to recently active keys, even under enumeration.
+    @Scheduled(fixedDelayString = "${rate-limit.eviction-interval-ms:30000}")
+    public void evictIdleBuckets() {
+        long now = nanoTime.getAsLong();
+        buckets.entrySet().removeIf(entry -> {
+            Bucket bucket = entry.getValue();
+            double missing = bucket.policy().capacity() - bucket.tokens();
+            return now - bucket.updatedAt() >= missing * bucket.policy().nanosPerToken();
+        });
+    }
+
+    public Set<String> policyNames() {
+        return policies.keySet();
+    }
+
+    public long allowedCount(String policyName) {
+        return policies.get(policyName).allowed().sum();
+    }
+
+    public long deniedCount(String policyName) {
+        return policies.get(policyName).denied().sum();
+    }
+
+    public int trackedKeys() {
+        return buckets.size();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        policies.forEach((name, policy) -> {
+            FunctionCounter.builder("rate.limiter.decisions", policy.allowed(), LongAdder::sum)
+                    .tags("policy", name, "decision", "allowed")
+                    .register(registry);
+            FunctionCounter.builder("rate.limiter.decisions", policy.denied(), LongAdder::sum)
+                    .tags("policy", name, "decision", "denied")
+                    .register(registry);
+        });
+        Gauge.builder("rate.limiter.tracked.keys", buckets, Map::size).register(registry);
+    }
+}
@@ -1,7 +1,12 @@
 package com.example.demo.service;
 
+import com.example.demo.config.JwtProperties;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SigningKeyResolverAdapter;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
@@ -16,12 +21,35 @@ import java.util.function.Function;
 @Service
 public class JwtService {
 
-    // Base64-encoded 256-bit key (safe and compatible)
-    private static final String SECRET_KEY = "5x7JbA8mvp6Md2tUvGz9NnRlAHUNoU88nDdS6sd+77k=";
+    private final String activeKid;
+    // Keys are decoded once; the parser is immutable and shared by all request threads
+    private final Map<String, Key> signingKeys = new HashMap<>();
+    private final JwtParser parser;
 
-    private Key getSignInKey() {
-        byte[] keyBytes = Decoders.BASE64.decode(SECRET_KEY);
-        return Keys.hmacShaKeyFor(keyBytes);
+    public JwtService(JwtProperties properties) {
+        properties.getKeys().forEach((kid, secret) ->
+                signingKeys.put(kid, Keys.hmacShaKeyFor(Decoders.BASE64.decode(secret))));
+        this.activeKid = properties.getActiveKid();
+        if (activeKid == null || !signingKeys.containsKey(activeKid)) {
+            throw new IllegalStateException("No JWT signing key configured for active kid: " + activeKid);
+        }
+
+        this.parser = Jwts.parserBuilder()
+                .setSigningKeyResolver(new SigningKeyResolverAdapter() {
+                    @Override
+                    public Key resolveSigningKey(JwsHeader header, Claims claims) {
+                        return resolveKey(header.getKeyId());
+                    }
+                })
+                .build();
+    }
+
+    private Key resolveKey(String kid) {
+        // Tokens issued before key ids were introduced carry no kid
+        if (kid == null) return signingKeys.get(activeKid);
+        Key key = signingKeys.get(kid);
+        if (key == null) throw new JwtException("Unknown JWT key id: " + kid);
+        return key;
     }
 
     public String extractUsername(String token) {
@@ -29,25 +57,18 @@ public class JwtService {
     }
 
     public <T> T extractClaim(String token, Function<Claims, T> claimsResolver) {
-        final Claims claims = parseToken(token);
+        final Claims claims = parseClaims(token);
         return claimsResolver.apply(claims);
     }
 
-    private Claims parseToken(String token) {
-        return Jwts
-                .parserBuilder()
-                .setSigningKey(getSignInKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
+    // Verifies signature and expiry; throws JwtException if the token is not valid
+    public Claims parseClaims(String token) {
+        return parser.parseClaimsJws(token).getBody();
     }
 
     public boolean isTokenValid(String token) {
         try {
-            Jwts.parserBuilder()
-                    .setSigningKey(getSignInKey())
-                    .build()
-                    .parseClaimsJws(token); // throws exception if invalid
+            parseClaims(token);
             return true;
         } catch (Exception e) {
             return false;
@@ -62,11 +83,12 @@ public class JwtService {
 
     private String createToken(Map<String, Object> claims, String subject) {
         return Jwts.builder()
+                .setHeaderParam(JwsHeader.KEY_ID, activeKid)
                 .setClaims(claims)
                 .setSubject(subject)
                 .setIssuedAt(new Date(System.currentTimeMillis()))
                 .setExpiration(new Date(System.currentTimeMillis() + 1000 * 60 * 60 * 24)) // 24h
-                .signWith(getSignInKey(), SignatureAlgorithm.HS256)
+                .signWith(signingKeys.get(activeKid), SignatureAlgorithm.HS256)
                 .compact();
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,137 @@
+package com.example.demo.service;
+
+import com.example.demo.config.LoanEventsProperties;
+import com.example.demo.dto.LoanEventDTO;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Fans loan changes out to the employees' SSE connections. Publishing only offers the event
+ * to each subscriber's bounded queue, so a write never waits on a network socket; every
+ * subscriber has its own virtual thread doing the sends. A subscriber whose queue is full
+ * is too slow to keep up and is disconnected, and its client reconnects and reloads.
+ */
+@Service
+public class LoanEventBroadcaster {
+
+    private static final Logger logger = LoggerFactory.getLogger(LoanEventBroadcaster.class);
+
+    // Queued like an event so heartbeats never race a send on the same emitter
+    private static final Object HEARTBEAT = new Object();
+
+    private final LoanEventsProperties properties;
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private final ExecutorService senders = Executors.newVirtualThreadPerTaskExecutor();
+    private final Counter evicted;
+
+    public LoanEventBroadcaster(LoanEventsProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.evicted = Counter.builder("loans.events.evicted").register(meterRegistry);
+        Gauge.builder("loans.events.subscribers", subscribers, Set::size).register(meterRegistry);
+    }
+
+    // Null when the subscriber limit is reached
+    public SseEmitter subscribe() {
+        if (subscribers.size() >= properties.getMaxSubscribers()) return null;
+
+        SseEmitter emitter = new SseEmitter(properties.getTimeout().toMillis());
+        Subscriber subscriber = new Subscriber(emitter, properties.getBufferSize());
+        emitter.onCompletion(() -> remove(subscriber));
+        emitter.onTimeout(() -> remove(subscriber));
+        emitter.onError(e -> remove(subscriber));
+
+        subscribers.add(subscriber);
+        subscriber.sender = senders.submit(() -> send(subscriber));
+        // Removed before the sender was assigned: remove() could not cancel it
+        if (!subscribers.contains(subscriber)) subscriber.sender.cancel(true);
+        return emitter;
+    }
+
+    // Runs after the publishing transaction commits, so rolled-back changes are never announced
+    @TransactionalEventListener(fallbackExecution = true)
+    public void publish(LoanEventDTO event) {
+        for (Subscriber subscriber : subscribers) {
+            offer(subscriber, event);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${loans.events.heartbeat-interval-ms:15000}")
+    public void heartbeat() {
+        for (Subscriber subscriber : subscribers) {
+            offer(subscriber, HEARTBEAT);
+        }
+    }
+
+    private void offer(Subscriber subscriber, Object event) {
+        if (!subscriber.queue.offer(event)) {
+            evicted.increment();
+            logger.info("Dropping slow loan event subscriber after {} queued events", subscriber.queue.size());
+            remove(subscriber);
+            // complete() waits for an in-flight send on this emitter, so keep it off the publisher's thread
+            senders.execute(subscriber.emitter::complete);
+        }
+    }
+
+    private void send(Subscriber subscriber) {
+        try {
+            while (!Thread.currentThread().isInterrupted()) {
+                Object next = subscriber.queue.take();
+                if (next == HEARTBEAT) {
+                    subscriber.emitter.send(SseEmitter.event().comment("heartbeat"));
+                } else {
+                    LoanEventDTO event = (LoanEventDTO) next;
+                    subscriber.emitter.send(SseEmitter.event().name(event.getType()).data(event));
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            // Client went away; the emitter callbacks may not fire until the next write fails
+            remove(subscriber);
+        }
+    }
+
+    private void remove(Subscriber subscriber) {
+        if (subscribers.remove(subscriber)) {
+            subscriber.queue.clear();
+            Future<?> sender = subscriber.sender;
+            if (sender != null) sender.cancel(true);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        subscribers.forEach(subscriber -> {
+            remove(subscriber);
+            subscriber.emitter.complete();
+        });
+        senders.shutdownNow();
+    }
+
+    private static final class Subscriber {
+        private final SseEmitter emitter;
+        private final BlockingQueue<Object> queue;
+        private volatile Future<?> sender;
+
+        private Subscriber(SseEmitter emitter, int bufferSize) {
+            this.emitter = emitter;
+            this.queue = new ArrayBlockingQueue<>(bufferSize);
+        }
+    }
+}
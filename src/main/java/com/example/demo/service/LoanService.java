@@ -1,21 +1,49 @@
 package com.example.demo.service;
 
+import com.example.demo.dto.BulkDecisionResultDTO;
 import com.example.demo.dto.CreateLoanApplicationDTO;
+import com.example.demo.dto.LoanApplicationDTO;
+import com.example.demo.dto.LoanChangesDTO;
+import com.example.demo.dto.LoanFilterDTO;
+import com.example.demo.dto.LoanPageDTO;
+import com.example.demo.dto.LoanReportDTO;
+import com.example.demo.dto.LoanSummaryDTO;
+import com.example.demo.dto.LoanSort;
 import com.example.demo.model.LoanApplication;
-import com.example.demo.model.User;
+import com.example.demo.repository.LoanApplicationRepository;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.util.List;
 import java.util.Map;
 
 public interface LoanService {
     LoanApplication save(LoanApplication loanApplication);
     LoanApplication getLoanById(Long id);
-    List<LoanApplication> getLoansByUser(User user);
-    void delete(Long id);
-    void updateLoan(Long id, CreateLoanApplicationDTO dto);
-    List<LoanApplication> getAllLoans();
-    boolean approveLoan(Long id);
-    boolean rejectLoan(Long id);
-    boolean evaluateLoan(Long id);
+    LoanApplication getLoanDetails(Long id);
+    List<LoanSummaryDTO> getLoanSummariesByUsername(String username);
+    // Cheap validators for conditional GETs; null when the loan does not exist
+    LoanApplicationRepository.LoanVersion getLoanVersion(Long id);
+    LoanApplicationRepository.ListVersion getLoanListVersion(String username);
+    // False when the loan is missing, not owned by the user or no longer in APPLIED
+    boolean delete(Long id, String username);
+    // False when the loan is missing, not owned by the user or no longer editable
+    // Throws ObjectOptimisticLockingFailureException when dto.version is set and no longer current
+    boolean updateLoan(Long id, String username, CreateLoanApplicationDTO dto);
+    // Like updateLoan, but null fields (and null incomes) are left unchanged
+    boolean patchLoan(Long id, String username, CreateLoanApplicationDTO dto);
+    LoanPageDTO getLoansPage(LoanFilterDTO filter, Long afterId, int size, LoanSort sort);
+    // Status changes return false when the loan's current status does not allow them;
+    // actor is the employee username recorded in the status history
+    boolean approveLoan(Long id, String actor);
+    boolean rejectLoan(Long id, String actor);
+    boolean evaluateLoan(Long id, String actor);
+    // Throws IllegalArgumentException for an unknown action or too many ids
+    BulkDecisionResultDTO decideLoans(String action, List<Long> ids, String actor);
+    // Loans created, updated or deleted after the cursor (0 for everything); all loans, or one client's
+    LoanChangesDTO<LoanApplicationDTO> getLoanChanges(long since);
+    LoanChangesDTO<LoanSummaryDTO> getLoanChangesByUsername(String username, long since);
     Map<String, Long> getLoanStatistics();
+    LoanReportDTO getLoanReport(String dateRange, String status);
+    void exportLoansCsv(String dateRange, String status, OutputStream out) throws IOException;
 }
\ No newline at end of file
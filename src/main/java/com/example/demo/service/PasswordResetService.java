@@ -3,25 +3,72 @@ package com.example.demo.service;
 import com.example.demo.model.PasswordResetCode;
 import com.example.demo.model.User;
 import com.example.demo.repository.PasswordResetCodeRepository;
+import com.example.demo.repository.UserRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
+import java.security.SecureRandom;
+import java.time.Duration;
 import java.time.LocalDateTime;
 
 @Service
 public class PasswordResetService {
 
+    private static final Logger logger = LoggerFactory.getLogger(PasswordResetService.class);
+
+    // SecureRandom is thread-safe and expensive to seed, so one instance serves every request
+    private static final SecureRandom RANDOM = new SecureRandom();
+
     private final PasswordResetCodeRepository resetCodeRepository;
+    private final UserRepository userRepository;
 
-    public PasswordResetService(PasswordResetCodeRepository resetCodeRepository) {
+    // In-memory mode: codes keyed by email and code, each expiring with its own deadline.
+    // Codes do not survive a restart and are local to one instance.
+    private final Cache<String, PasswordResetCode> memoryStore;
+
+    public PasswordResetService(PasswordResetCodeRepository resetCodeRepository, UserRepository userRepository,
+                                @Value("${password-reset.store:database}") String store,
+                                @Value("${password-reset.memory-max-size:100000}") long memoryMaxSize) {
         this.resetCodeRepository = resetCodeRepository;
+        this.userRepository = userRepository;
+        this.memoryStore = !"memory".equals(store) ? null : Caffeine.newBuilder()
+                .maximumSize(memoryMaxSize)
+                .expireAfter(Expiry.<String, PasswordResetCode>creating((key, code) ->
+                        Duration.between(LocalDateTime.now(), code.getExpiryTime())))
+                .build();
+    }
+
+    public String generateCode() {
+        return String.format("%06d", RANDOM.nextInt(1_000_000));
     }
 
     public void createResetCode(User user, String code, LocalDateTime expiry) {
+        if (memoryStore != null) {
+            // Only the user id is kept; the user is reloaded on redemption so it is never stale
+            User ref = new User();
+            ref.setId(user.getId());
+            memoryStore.put(key(user.getEmail(), code), new PasswordResetCode(ref, code, expiry));
+            return;
+        }
         PasswordResetCode resetCode = new PasswordResetCode(user, code, expiry);
         resetCodeRepository.save(resetCode);
     }
 
     public PasswordResetCode getValidCode(String email, String code) {
+        if (memoryStore != null) {
+            PasswordResetCode stored = memoryStore.getIfPresent(key(email, code));
+            if (stored == null || stored.getExpiryTime().isBefore(LocalDateTime.now())) return null;
+            User user = userRepository.findById(stored.getUser().getId()).orElse(null);
+            if (user == null) return null;
+            return new PasswordResetCode(user, code, stored.getExpiryTime());
+        }
+
         PasswordResetCode resetCode = resetCodeRepository.findByUserEmailAndCode(email, code);
         if (resetCode == null || resetCode.isUsed() || resetCode.getExpiryTime().isBefore(LocalDateTime.now())) {
             return null;
@@ -30,7 +77,22 @@ public class PasswordResetService {
     }
 
     public void markCodeAsUsed(PasswordResetCode code) {
+        if (memoryStore != null) {
+            memoryStore.invalidate(key(code.getUser().getEmail(), code.getCode()));
+            return;
+        }
         code.setUsed(true);
         resetCodeRepository.save(code);
     }
+
+    @Scheduled(fixedDelayString = "${password-reset.purge-interval-ms:3600000}")
+    public void purgeStaleCodes() {
+        if (memoryStore != null) return; // entries expire on their own
+        int purged = resetCodeRepository.deleteUsedOrExpired(LocalDateTime.now());
+        if (purged > 0) logger.info("Purged {} used or expired password reset codes", purged);
+    }
+
+    private static String key(String email, String code) {
+        return email + '|' + code;
+    }
 }
@@ -0,0 +1,145 @@
+package com.example.demo.service.impl;
+
+import com.example.demo.config.EmailOutboxProperties;
+import com.example.demo.model.EmailOutbox;
+import com.example.demo.repository.EmailOutboxRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Limit;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+@Component
+@ConditionalOnProperty(name = "email.mode", havingValue = "outbox", matchIfMissing = true)
+public class EmailOutboxDispatcher {
+
+    private static final Logger logger = LoggerFactory.getLogger(EmailOutboxDispatcher.class);
+
+    private static final List<String> DUE_STATUSES = List.of(EmailOutbox.PENDING, EmailOutbox.SENDING);
+
+    private final EmailOutboxRepository outboxRepo;
+    private final JavaMailSender mailSender;
+    private final EmailOutboxProperties properties;
+
+    // One virtual thread per send; the semaphore caps concurrent connections to the mail server
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final Semaphore smtpPermits;
+    private final Timer sent;
+    private final Timer failed;
+
+    public EmailOutboxDispatcher(EmailOutboxRepository outboxRepo, JavaMailSender mailSender,
+                                 EmailOutboxProperties properties, MeterRegistry meterRegistry) {
+        this.outboxRepo = outboxRepo;
+        this.mailSender = mailSender;
+        this.properties = properties;
+        this.smtpPermits = new Semaphore(properties.getMaxConcurrency());
+        this.sent = Timer.builder("email.send").tags("mode", "outbox", "outcome", "sent").register(meterRegistry);
+        this.failed = Timer.builder("email.send").tags("mode", "outbox", "outcome", "failed").register(meterRegistry);
+    }
+
+    // Drains every due message, one batch at a time, then waits for the next tick
+    @Scheduled(fixedDelayString = "${email.outbox.poll-interval-ms:2000}")
+    public void drain() {
+        List<EmailOutbox> batch;
+        do {
+            batch = outboxRepo.findByStatusInAndNextAttemptAtLessThanEqualOrderByIdAsc(
+                    DUE_STATUSES, LocalDateTime.now(), Limit.of(properties.getBatchSize()));
+
+            List<Future<?>> sends = new ArrayList<>(batch.size());
+            for (EmailOutbox message : batch) {
+                sends.add(executor.submit(() -> deliver(message)));
+            }
+            // Past the claim lease another instance may send the message anyway, so there is no point waiting longer
+            long deadline = System.nanoTime() + properties.getClaimTimeout().toNanos();
+            for (Future<?> send : sends) {
+                try {
+                    send.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+                } catch (TimeoutException e) {
+                    send.cancel(true);
+                    logger.warn("Outbox delivery task still running after the claim timeout; cancelled");
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                } catch (Exception e) {
+                    logger.warn("Outbox delivery task failed: {}", e.getMessage());
+                }
+            }
+        } while (batch.size() == properties.getBatchSize());
+    }
+
+    private void deliver(EmailOutbox message) {
+        // Several instances may have read the same rows; only the one that claims a message sends it
+        LocalDateTime now = LocalDateTime.now();
+        if (outboxRepo.claim(message.getId(), now, now.plus(properties.getClaimTimeout())) == 0) return;
+        message.setAttempts(message.getAttempts() + 1);
+        try {
+            smtpPermits.acquire();
+            // Measured after acquiring the permit so the timer reflects SMTP latency, not queueing
+            long start = System.nanoTime();
+            try {
+                SimpleMailMessage mail = new SimpleMailMessage();
+                mail.setTo(message.getRecipient());
+                mail.setSubject(message.getSubject());
+                mail.setText(message.getBody());
+                mailSender.send(mail);
+                sent.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            } catch (RuntimeException e) {
+                failed.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                throw e;
+            } finally {
+                smtpPermits.release();
+            }
+            message.setStatus(EmailOutbox.SENT);
+            message.setSentAt(LocalDateTime.now());
+            message.setLastError(null);
+        } catch (Exception e) {
+            scheduleRetry(message, e);
+        }
+        outboxRepo.save(message);
+    }
+
+    private void scheduleRetry(EmailOutbox message, Exception e) {
+        String error = e.getMessage() == null ? e.getClass().getSimpleName() : e.getMessage();
+        message.setLastError(error.length() > 1000 ? error.substring(0, 1000) : error);
+
+        if (message.getAttempts() >= properties.getMaxAttempts()) {
+            message.setStatus(EmailOutbox.FAILED);
+            logger.error("Giving up on outbox message {} to {}: {}", message.getId(), message.getRecipient(), error);
+            return;
+        }
+        // Exponential backoff: initial, 2x, 4x, ... capped at maxBackoff
+        Duration backoff = properties.getInitialBackoff().multipliedBy(1L << Math.min(message.getAttempts() - 1, 20));
+        if (backoff.compareTo(properties.getMaxBackoff()) > 0) backoff = properties.getMaxBackoff();
+        message.setStatus(EmailOutbox.PENDING);
+        message.setNextAttemptAt(LocalDateTime.now().plus(backoff));
+        logger.warn("Outbox message {} failed, retrying in {}: {}", message.getId(), backoff, error);
+    }
+
+    @Scheduled(fixedDelayString = "${email.outbox.purge-interval-ms:3600000}")
+    public void purgeSent() {
+        int purged = outboxRepo.deleteSentBefore(LocalDateTime.now().minus(properties.getRetention()));
+        if (purged > 0) logger.info("Purged {} delivered outbox messages", purged);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+}
@@ -1,17 +1,24 @@
 package com.example.demo.service.impl;
 
 import com.example.demo.service.EmailService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.mail.SimpleMailMessage;
 import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.stereotype.Service;
 
+// Synchronous SMTP delivery on the calling thread; the default mode queues through the outbox
 @Service
+@ConditionalOnProperty(name = "email.mode", havingValue = "direct")
 public class EmailServiceImpl implements EmailService {
 
     private final JavaMailSender mailSender;
+    private final MeterRegistry meterRegistry;
 
-    public EmailServiceImpl(JavaMailSender mailSender) {
+    public EmailServiceImpl(JavaMailSender mailSender, MeterRegistry meterRegistry) {
         this.mailSender = mailSender;
+        this.meterRegistry = meterRegistry;
     }
 
     @Override
@@ -20,6 +27,14 @@ public class EmailServiceImpl implements EmailService {
         message.setTo(to);
         message.setSubject(subject);
         message.setText(body);
-        mailSender.send(message);
+
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "failed";
+        try {
+            mailSender.send(message);
+            outcome = "sent";
+        } finally {
+            sample.stop(meterRegistry.timer("email.send", "mode", "direct", "outcome", outcome));
+        }
     }
 }
\ No newline at end of file
@@ -0,0 +1,139 @@
+package com.example.demo.service.impl;
+
+import com.example.demo.model.LoanApplication;
+import com.example.demo.model.LoanDailyStatsId;
+import com.example.demo.model.LoanStatus;
+import com.example.demo.repository.LoanApplicationRepository;
+import com.example.demo.repository.LoanDailyStatsRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * Keeps loan_daily_stats in step with the loans. LoanServiceImpl hands every write over as a
+ * Batch of per-key deltas, applied in the writer's own transaction so the rollup commits or rolls
+ * back with the change it describes. A nightly rebuild recomputes the table from the loans day by
+ * day, which also backfills it on the first start.
+ */
+@Component
+public class LoanDailyRollup {
+
+    private static final Logger logger = LoggerFactory.getLogger(LoanDailyRollup.class);
+
+    // Stands in for a missing loan type or currency, both of which are part of the key
+    static final String NONE = "-";
+
+    private static final int MAX_INSERT_ATTEMPTS = 3;
+
+    // Rows are locked in this order by every writer, so two writes touching the same keys
+    // (an edit moving a loan from type A to B next to one moving another from B to A) can't deadlock
+    private static final Comparator<LoanDailyStatsId> KEY_ORDER = Comparator.comparing(LoanDailyStatsId::getDay)
+            .thenComparing(LoanDailyStatsId::getLoanType)
+            .thenComparing(LoanDailyStatsId::getCurrency)
+            .thenComparing(LoanDailyStatsId::getStatus);
+
+    private final LoanDailyStatsRepository statsRepo;
+
+    private final TransactionTemplate transactions;
+
+    public LoanDailyRollup(LoanDailyStatsRepository statsRepo, PlatformTransactionManager transactionManager) {
+        this.statsRepo = statsRepo;
+        this.transactions = new TransactionTemplate(transactionManager);
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void apply(Batch batch) {
+        batch.deltas.forEach((key, delta) -> {
+            if (delta.applications == 0 && delta.volume == 0) return;
+            // A rebuild may delete a row of a key that has no committed loans yet, even right after
+            // it was inserted here, so insert again until the increment lands
+            for (int attempt = 1; increment(key, delta) == 0; attempt++) {
+                if (attempt > MAX_INSERT_ATTEMPTS) throw new IllegalStateException("No loan_daily_stats row for " + key);
+                statsRepo.insertIfAbsent(key);
+            }
+        });
+    }
+
+    private int increment(LoanDailyStatsId key, Delta delta) {
+        return statsRepo.increment(key.getDay(), key.getLoanType(), key.getCurrency(), key.getStatus(),
+                delta.applications, delta.volume);
+    }
+
+    // One short transaction per day: writers only wait for the day being corrected, and only
+    // for rows whose totals actually differ
+    @Scheduled(cron = "${loans.rollup.rebuild-cron:0 30 3 * * *}")
+    public void rebuild() {
+        Set<LocalDate> days = new TreeSet<>(statsRepo.findDays());
+        statsRepo.findLoanDays().forEach(day -> days.add(day.toLocalDate()));
+        int corrected = 0;
+        for (LocalDate day : days) {
+            Integer rows = transactions.execute(status -> rebuild(day));
+            corrected += rows == null ? 0 : rows;
+        }
+        logger.info("Rebuilt loan_daily_stats: {} days, {} rows corrected", days.size(), corrected);
+    }
+
+    private int rebuild(LocalDate day) {
+        LocalDateTime from = day.atStartOfDay();
+        LocalDateTime to = from.plusDays(1);
+        return statsRepo.mergeFromLoans(from, to) + statsRepo.deleteStale(day, from, to);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillIfEmpty() {
+        if (statsRepo.count() == 0) rebuild();
+    }
+
+    /** Changes to the rollup, summed per key so a bulk decision touches each row once. */
+    public static class Batch {
+        private final Map<LoanDailyStatsId, Delta> deltas = new TreeMap<>(KEY_ORDER);
+
+        // sign +1 counts the loan in under its current status, -1 takes it out
+        public Batch add(LoanApplication loan, int sign) {
+            return add(loan.getCreatedAt(), loan.getLoanType(), loan.getCurrency(), loan.getRequestedAmount(),
+                    loan.getStatus(), sign);
+        }
+
+        // A status change of the loan the snapshot was taken of
+        public Batch moved(LoanApplicationRepository.StatusSnapshot loan, LoanStatus to) {
+            add(loan.getCreatedAt(), loan.getLoanType(), loan.getCurrency(), loan.getRequestedAmount(), loan.getStatus(), -1);
+            return add(loan.getCreatedAt(), loan.getLoanType(), loan.getCurrency(), loan.getRequestedAmount(), to, 1);
+        }
+
+        private Batch add(LocalDateTime createdAt, String loanType, String currency, Double amount,
+                          LoanStatus status, int sign) {
+            // The rebuild skips these too
+            if (createdAt == null || status == null) return this;
+            LoanDailyStatsId key = new LoanDailyStatsId(createdAt.toLocalDate(), orNone(loanType), orNone(currency), status);
+            Delta delta = deltas.computeIfAbsent(key, k -> new Delta());
+            delta.applications += sign;
+            delta.volume += sign * (amount == null ? 0 : amount);
+            return this;
+        }
+
+        private static String orNone(String value) {
+            // Empty as well as null, since Oracle stores an empty string as NULL
+            return value == null || value.isEmpty() ? NONE : value;
+        }
+    }
+
+    private static class Delta {
+        private long applications;
+        private double volume;
+    }
+}
@@ -1,32 +1,108 @@
 package com.example.demo.service.impl;
 
+import com.example.demo.config.LoanChangesProperties;
+import com.example.demo.dto.BulkDecisionResultDTO;
+import com.example.demo.dto.ChartEntryDTO;
 import com.example.demo.dto.CreateLoanApplicationDTO;
+import com.example.demo.dto.IncomeDTO;
+import com.example.demo.dto.LoanApplicationDTO;
+import com.example.demo.dto.LoanChangesDTO;
+import com.example.demo.dto.LoanEventDTO;
+import com.example.demo.dto.LoanExportRowDTO;
+import com.example.demo.dto.LoanFilterDTO;
+import com.example.demo.dto.LoanPageDTO;
+import com.example.demo.dto.LoanReportDTO;
+import com.example.demo.dto.LoanSort;
+import com.example.demo.dto.LoanSummaryDTO;
+import com.example.demo.dto.MonthlyTrendDTO;
 import com.example.demo.mapper.LoanMapper;
 import com.example.demo.model.Income;
-import com.example.demo.model.User;
 import com.example.demo.model.LoanApplication;
+import com.example.demo.model.LoanStatus;
+import com.example.demo.model.LoanStatusHistory;
+import com.example.demo.model.LoanTombstone;
 import com.example.demo.repository.LoanApplicationRepository;
-import com.example.demo.repository.IncomeRepository;
+import com.example.demo.repository.LoanDailyStatsRepository;
+import com.example.demo.repository.LoanSpecifications;
+import com.example.demo.repository.LoanStatusHistoryRepository;
+import com.example.demo.repository.LoanTombstoneRepository;
 import com.example.demo.service.LoanService;
+import io.micrometer.core.annotation.Timed;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
 import java.util.*;
+import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
+@Timed("loan.service")
 public class LoanServiceImpl implements LoanService {
 
+    private static final int MAX_PAGE_SIZE = 100;
+    private static final int TREND_MONTHS = 6;
+    // Oracle caps IN lists at 1000 elements, so a bulk decision is one statement at most
+    private static final int MAX_BULK_IDS = 1000;
+    // Reads of a loan a decision may make while concurrent writes keep changing it
+    private static final int MAX_TRANSITION_ATTEMPTS = 3;
+
+    // Bulk action -> resulting status; LoanStatus decides which statuses it may be applied to
+    private static final Map<String, LoanStatus> ACTION_TARGETS = Map.of(
+            "approve", LoanStatus.APPROVED, "reject", LoanStatus.REJECTED, "evaluate", LoanStatus.EVALUATION);
+    // Lower bound used when a report covers every application
+    private static final LocalDateTime REPORT_EPOCH = LocalDateTime.of(1970, 1, 1, 0, 0);
+
     private final LoanApplicationRepository loanRepo;
-    private final IncomeRepository incomeRepo;
+    private final LoanStatusHistoryRepository historyRepo;
+    private final LoanStatusCounters statusCounters;
+    private final ApplicationEventPublisher events;
+    private final LoanTombstoneRepository tombstoneRepo;
+    private final LoanChangesProperties changesProperties;
+    private final LoanDailyRollup dailyRollup;
+    private final LoanDailyStatsRepository statsRepo;
 
-    LoanServiceImpl(LoanApplicationRepository loanRepo, IncomeRepository incomeRepo){
+    LoanServiceImpl(LoanApplicationRepository loanRepo, LoanStatusHistoryRepository historyRepo,
+                    LoanStatusCounters statusCounters, ApplicationEventPublisher events,
+                    LoanTombstoneRepository tombstoneRepo, LoanChangesProperties changesProperties,
+                    LoanDailyRollup dailyRollup, LoanDailyStatsRepository statsRepo){
         this.loanRepo = loanRepo;
-        this.incomeRepo = incomeRepo;
+        this.historyRepo = historyRepo;
+        this.statusCounters = statusCounters;
+        this.events = events;
+        this.tombstoneRepo = tombstoneRepo;
+        this.changesProperties = changesProperties;
+        this.dailyRollup = dailyRollup;
+        this.statsRepo = statsRepo;
     }
 
     @Override
+    @Transactional
     public LoanApplication save(LoanApplication loanApplication) {
-        return loanRepo.save(loanApplication);
+        boolean isNew = loanApplication.getId() == null;
+        loanApplication.setChangeSeq(loanRepo.nextChangeSeq());
+        loanApplication.setUpdatedAt(LocalDateTime.now());
+        LoanApplication saved = loanRepo.save(loanApplication);
+        if (isNew) {
+            dailyRollup.apply(new LoanDailyRollup.Batch().add(saved, 1));
+            statusCounters.created(saved.getStatus());
+            publish(LoanEventDTO.CREATED, List.of(saved.getId()), saved.getStatus());
+        }
+        return saved;
     }
 
     @Override
@@ -35,95 +111,450 @@ public class LoanServiceImpl implements LoanService {
     }
 
     @Override
-    public List<LoanApplication> getLoansByUser(User user) {
-        return loanRepo.findByUser(user);
+    public LoanApplication getLoanDetails(Long id) {
+        return loanRepo.findWithDetailsById(id).orElse(null);
+    }
+
+    @Override
+    public List<LoanSummaryDTO> getLoanSummariesByUsername(String username) {
+        return loanRepo.findSummariesByUsername(username);
+    }
+
+    @Override
+    public LoanApplicationRepository.LoanVersion getLoanVersion(Long id) {
+        return loanRepo.findVersionById(id).orElse(null);
+    }
+
+    @Override
+    public LoanApplicationRepository.ListVersion getLoanListVersion(String username) {
+        return loanRepo.findListVersionByUsername(username);
+    }
+
+    @Override
+    @Transactional
+    public boolean delete(Long id, String username) {
+        LoanApplication loan = loanRepo.lockById(id).orElse(null);
+        if (loan == null || !loan.getUser().getUsername().equals(username) || loan.getStatus() != LoanStatus.APPLIED) {
+            return false;
+        }
+        loanRepo.delete(loan);
+        tombstoneRepo.save(new LoanTombstone(id, loan.getUser().getId(), LocalDateTime.now()));
+        dailyRollup.apply(new LoanDailyRollup.Batch().add(loan, -1));
+        statusCounters.deleted(loan.getStatus());
+        publish(LoanEventDTO.DELETED, List.of(id), null);
+        return true;
     }
 
     @Override
-    public void delete(Long id) {
-        loanRepo.deleteById(id);
+    @Transactional
+    public boolean updateLoan(Long id, String username, CreateLoanApplicationDTO dto) {
+        return edit(id, username, dto, false);
+    }
+
+    @Override
+    @Transactional
+    public boolean patchLoan(Long id, String username, CreateLoanApplicationDTO dto) {
+        return edit(id, username, dto, true);
+    }
+
+    // One load of the loan with its owner and incomes; dirty checking writes only what changed
+    // and @Version rejects the flush if someone else modified the loan in the meantime
+    private boolean edit(Long id, String username, CreateLoanApplicationDTO dto, boolean partial) {
+        LoanApplication loan = loanRepo.findWithDetailsById(id).orElse(null);
+        if (loan == null || !loan.getUser().getUsername().equals(username) || loan.getStatus() != LoanStatus.APPLIED) {
+            return false;
+        }
+        // @Version alone only catches edits that race this transaction; the client's copy may be older
+        if (dto.getVersion() != null && !dto.getVersion().equals(loan.getVersion())) {
+            throw new ObjectOptimisticLockingFailureException(LoanApplication.class, id);
+        }
+        // Before any change: the native sequence query would otherwise flush them early
+        loan.setChangeSeq(loanRepo.nextChangeSeq());
+        loan.setUpdatedAt(LocalDateTime.now());
+        // Out under the old type, currency and amount, back in under the new; nets to nothing if unchanged
+        LoanDailyRollup.Batch rollup = new LoanDailyRollup.Batch().add(loan, -1);
+
+        if (!partial || dto.getFatherName() != null) loan.setFatherName(dto.getFatherName());
+        if (!partial || dto.getBirthDate() != null) loan.setBirthDate(dto.getBirthDate());
+        if (!partial || dto.getBirthPlace() != null) loan.setBirthPlace(dto.getBirthPlace());
+        if (!partial || dto.getPhoneNumber() != null) loan.setPhoneNumber(dto.getPhoneNumber());
+        if (!partial || dto.getEducationLevel() != null) loan.setEducationLevel(dto.getEducationLevel());
+        if (!partial || dto.getMaritalStatus() != null) loan.setMaritalStatus(dto.getMaritalStatus());
+        if (!partial || dto.getRequestedAmount() != null) loan.setRequestedAmount(dto.getRequestedAmount());
+        if (!partial || dto.getCurrency() != null) loan.setCurrency(dto.getCurrency());
+        if (!partial || dto.getDurationMonths() != null) loan.setDurationMonths(dto.getDurationMonths());
+        if (!partial || dto.getLoanType() != null) loan.setLoanType(dto.getLoanType());
+
+        if (!partial || dto.getIncomes() != null) {
+            mergeIncomes(loan, dto.getIncomes() != null ? dto.getIncomes() : List.of());
+        }
+        dailyRollup.apply(rollup.add(loan, 1));
+        publish(LoanEventDTO.UPDATED, List.of(id), loan.getStatus());
+        return true;
+    }
+
+    // Unchanged incomes are left alone, changed ones are updated in place, and only the
+    // surplus on either side turns into inserts or (orphan-removal) deletes
+    private void mergeIncomes(LoanApplication loan, List<IncomeDTO> incoming) {
+        List<IncomeDTO> unmatched = new ArrayList<>(incoming);
+        List<Income> stale = new ArrayList<>();
+        for (Income income : loan.getIncomes()) {
+            IncomeDTO same = unmatched.stream().filter(dto -> sameIncome(income, dto)).findFirst().orElse(null);
+            if (same != null) unmatched.remove(same);
+            else stale.add(income);
+        }
+
+        int reused = Math.min(stale.size(), unmatched.size());
+        for (int i = 0; i < reused; i++) {
+            IncomeDTO dto = unmatched.get(i);
+            Income income = stale.get(i);
+            income.setIncomeType(dto.getIncomeType());
+            income.setAmount(dto.getAmount());
+            income.setCurrency(dto.getCurrency());
+            income.setSince(dto.getSince());
+        }
+        loan.getIncomes().removeAll(stale.subList(reused, stale.size()));
+        for (IncomeDTO dto : unmatched.subList(reused, unmatched.size())) {
+            Income income = LoanMapper.toEntity(dto);
+            income.setLoanApplication(loan);
+            loan.getIncomes().add(income);
+        }
+    }
+
+    private static boolean sameIncome(Income income, IncomeDTO dto) {
+        return Objects.equals(income.getIncomeType(), dto.getIncomeType())
+                && Objects.equals(income.getAmount(), dto.getAmount())
+                && Objects.equals(income.getCurrency(), dto.getCurrency())
+                && Objects.equals(income.getSince(), dto.getSince());
     }
 
     @Override
-    public void updateLoan(Long id, CreateLoanApplicationDTO dto) {
-        LoanApplication loan = getLoanById(id);
-        if (loan == null || !loan.getStatus().equals("Applied")) return;
+    @Transactional(readOnly = true)
+    public LoanPageDTO getLoansPage(LoanFilterDTO filter, Long afterId, int size, LoanSort sort) {
+        int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        boolean descending = sort != LoanSort.OLDEST;
+
+        Specification<LoanApplication> spec = Specification.allOf(
+                LoanSpecifications.hasStatus(normalizeStatus(filter.getStatus())),
+                LoanSpecifications.hasLoanType(blankToNull(filter.getLoanType())),
+                LoanSpecifications.hasCurrency(blankToNull(filter.getCurrency())),
+                LoanSpecifications.amountBetween(filter.getMinAmount(), filter.getMaxAmount()),
+                LoanSpecifications.createdBetween(filter.getCreatedFrom(), filter.getCreatedTo()),
+                LoanSpecifications.applicantStartsWith(blankToNull(filter.getApplicant())),
+                LoanSpecifications.idAfter(afterId, descending));
+        Sort order = Sort.by(descending ? Sort.Direction.DESC : Sort.Direction.ASC, "id");
 
-        loan.setFatherName(dto.getFatherName());
-        loan.setBirthDate(dto.getBirthDate());
-        loan.setBirthPlace(dto.getBirthPlace());
-        loan.setPhoneNumber(dto.getPhoneNumber());
-        loan.setEducationLevel(dto.getEducationLevel());
-        loan.setMaritalStatus(dto.getMaritalStatus());
-        loan.setRequestedAmount(dto.getRequestedAmount());
-        loan.setCurrency(dto.getCurrency());
-        loan.setDurationMonths(dto.getDurationMonths());
-        loan.setLoanType(dto.getLoanType());
+        // One extra row tells us whether another page follows. Only the applicant is
+        // fetched so the LIMIT stays in SQL; incomes are batch-loaded.
+        List<LoanApplication> rows = loanRepo.findBy(spec, q -> q
+                .sortBy(order)
+                .limit(pageSize + 1)
+                .project("user")
+                .all());
 
-        // Clear existing incomes and save new ones
-        List<Income> existingIncomes = incomeRepo.findByLoanApplication(loan);
-        incomeRepo.deleteAll(existingIncomes);
+        boolean hasNext = rows.size() > pageSize;
+        List<LoanApplication> page = hasNext ? rows.subList(0, pageSize) : rows;
+        Long nextCursor = hasNext ? page.get(page.size() - 1).getId() : null;
 
-        List<Income> newIncomes = dto.getIncomes().stream()
-                .map(i -> {
-                    Income income = LoanMapper.toEntity(i);
-                    income.setLoanApplication(loan);
-                    return income;
-                })
-                .collect(Collectors.toList());
+        return new LoanPageDTO(
+                page.stream().map(LoanMapper::toDTO).collect(Collectors.toList()),
+                nextCursor);
+    }
 
-        loan.setIncomes(newIncomes);
-        loanRepo.save(loan);
+    @Override
+    @Transactional
+    public boolean approveLoan(Long id, String actor) {
+        return transition(id, LoanStatus.APPROVED, actor);
     }
 
     @Override
-    public List<LoanApplication> getAllLoans() {
-        return loanRepo.findAll();
+    @Transactional
+    public boolean rejectLoan(Long id, String actor) {
+        return transition(id, LoanStatus.REJECTED, actor);
     }
 
     @Override
-    public boolean approveLoan(Long id) {
-        LoanApplication loan = getLoanById(id);
-        if (loan != null && (loan.getStatus().equals("Evaluation") || loan.getStatus().equals("Applied"))) {
-            loan.setStatus("Approved");
-            loanRepo.save(loan);
+    @Transactional
+    public boolean evaluateLoan(Long id, String actor) {
+        return transition(id, LoanStatus.EVALUATION, actor);
+    }
+
+    // One guarded UPDATE per decision, conditioned on the version just read, so the status and
+    // rollup key recorded for it are the ones the loan really moved from. The snapshot is read
+    // without locking; if a concurrent edit gets in between, the loan is read again, and if
+    // another decision got there first it is no longer eligible.
+    private boolean transition(Long id, LoanStatus target, String actor) {
+        for (int attempt = 0; attempt < MAX_TRANSITION_ATTEMPTS; attempt++) {
+            List<LoanApplicationRepository.StatusSnapshot> rows = loanRepo.findStatusSnapshots(List.of(id));
+            if (rows.isEmpty()) return false;
+            LoanApplicationRepository.StatusSnapshot loan = rows.get(0);
+            LoanStatus from = loan.getStatus();
+            if (from == null || !from.canMoveTo(target)) return false;
+
+            LocalDateTime now = LocalDateTime.now();
+            if (!loanRepo.moveStatus(id, loan.getVersion(), target, now)) continue;
+            historyRepo.save(new LoanStatusHistory(id, from, target, actor, now));
+            statusCounters.transitioned(from, target);
+            dailyRollup.apply(new LoanDailyRollup.Batch().moved(loan, target));
+            publish(LoanEventDTO.STATUS_CHANGED, List.of(id), target);
             return true;
         }
         return false;
     }
 
     @Override
-    public boolean rejectLoan(Long id) {
-        LoanApplication loan = getLoanById(id);
-        if (loan != null && (loan.getStatus().equals("Evaluation") || loan.getStatus().equals("Applied"))) {
-            loan.setStatus("Rejected");
-            loanRepo.save(loan);
-            return true;
+    @Transactional
+    public BulkDecisionResultDTO decideLoans(String action, List<Long> ids, String actor) {
+        String key = action == null ? "" : action.toLowerCase();
+        LoanStatus target = ACTION_TARGETS.get(key);
+        if (target == null) throw new IllegalArgumentException("Unknown action: " + action);
+        Set<Long> requested = new LinkedHashSet<>(ids == null ? List.of() : ids);
+        requested.remove(null);
+        if (requested.size() > MAX_BULK_IDS) {
+            throw new IllegalArgumentException("At most " + MAX_BULK_IDS + " loans per request");
         }
-        return false;
+
+        Map<Long, String> outcomes = new LinkedHashMap<>();
+        requested.forEach(id -> outcomes.put(id, BulkDecisionResultDTO.NOT_FOUND));
+        if (requested.isEmpty()) return new BulkDecisionResultDTO(key, target, 0, outcomes);
+
+        // The same guarded move as a single decision, as one set-based UPDATE per round. Loans a
+        // concurrent write got to between the snapshot and the UPDATE are read again next round.
+        List<LoanStatus> sources = LoanStatus.sourcesOf(target);
+        LocalDateTime now = LocalDateTime.now();
+        Map<Long, LoanStatus> previous = new LinkedHashMap<>();
+        LoanDailyRollup.Batch rollup = new LoanDailyRollup.Batch();
+        Set<Long> pending = requested;
+        for (int attempt = 0; attempt < MAX_TRANSITION_ATTEMPTS && !pending.isEmpty(); attempt++) {
+            pending.forEach(id -> outcomes.put(id, BulkDecisionResultDTO.NOT_FOUND));
+            Map<Long, LoanApplicationRepository.StatusSnapshot> eligible = new LinkedHashMap<>();
+            for (LoanApplicationRepository.StatusSnapshot loan : loanRepo.findStatusSnapshots(pending)) {
+                boolean allowed = sources.contains(loan.getStatus());
+                outcomes.put(loan.getId(), allowed ? BulkDecisionResultDTO.CONFLICT : BulkDecisionResultDTO.NOT_ALLOWED);
+                if (allowed) eligible.put(loan.getId(), loan);
+            }
+            if (eligible.isEmpty()) break;
+
+            List<Long> seen = eligible.values().stream()
+                    .map(loan -> loan.getChangeSeq() == null ? 0L : loan.getChangeSeq())
+                    .distinct()
+                    .toList();
+            for (Long id : loanRepo.moveStatuses(eligible.keySet(), seen, sources, target, loanRepo.nextChangeSeq(), now)) {
+                LoanApplicationRepository.StatusSnapshot loan = eligible.remove(id);
+                previous.put(id, loan.getStatus());
+                rollup.moved(loan, target);
+                outcomes.put(id, BulkDecisionResultDTO.UPDATED);
+            }
+            pending = eligible.keySet();
+        }
+        if (previous.isEmpty()) return new BulkDecisionResultDTO(key, target, 0, outcomes);
+
+        List<LoanStatusHistory> history = new ArrayList<>(previous.size());
+        previous.forEach((id, from) -> {
+            history.add(new LoanStatusHistory(id, from, target, actor, now));
+            statusCounters.transitioned(from, target);
+        });
+        historyRepo.saveAll(history);
+        dailyRollup.apply(rollup);
+        // One event for the whole batch so a bulk decision doesn't flood subscriber buffers
+        publish(LoanEventDTO.STATUS_CHANGED, List.copyOf(previous.keySet()), target);
+        return new BulkDecisionResultDTO(key, target, previous.size(), outcomes);
+    }
+
+    // Delivered to listeners only after the surrounding transaction commits
+    private void publish(String type, List<Long> ids, LoanStatus status) {
+        events.publishEvent(new LoanEventDTO(type, ids, status, LocalDateTime.now()));
     }
 
     @Override
-    public boolean evaluateLoan(Long id) {
-        LoanApplication loan = getLoanById(id);
-        if (loan != null && loan.getStatus().equals("Applied")) {
-            loan.setStatus("Evaluation");
-            loanRepo.save(loan);
-            return true;
+    @Transactional(readOnly = true)
+    public LoanChangesDTO<LoanApplicationDTO> getLoanChanges(long since) {
+        Limit limit = Limit.of(changesProperties.getMaxResults());
+        List<LoanApplication> loans = loanRepo.findByChangeSeqGreaterThanOrderByChangeSeqAsc(since, limit);
+        List<LoanTombstone> tombstones = tombstoneRepo.findByChangeSeqGreaterThanOrderByChangeSeqAsc(since, limit);
+        return changes(since, loans, tombstones, LoanMapper::toDTO);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public LoanChangesDTO<LoanSummaryDTO> getLoanChangesByUsername(String username, long since) {
+        Limit limit = Limit.of(changesProperties.getMaxResults());
+        List<LoanApplication> loans = loanRepo.findByUserUsernameAndChangeSeqGreaterThanOrderByChangeSeqAsc(username, since, limit);
+        List<LoanTombstone> tombstones = tombstoneRepo.findByUsernameSince(username, since, limit);
+        return changes(since, loans, tombstones, LoanMapper::toSummary);
+    }
+
+    // Merges both change lists in sequence order and keeps the first maxResults. Sequence values
+    // are taken before commit, so a write inside the settle window may still have an uncommitted
+    // lower value in flight; the cursor stops at the first such write and it is sent again later.
+    private <T> LoanChangesDTO<T> changes(long since, List<LoanApplication> loans, List<LoanTombstone> tombstones,
+                                          Function<LoanApplication, T> mapper) {
+        int max = changesProperties.getMaxResults();
+        LocalDateTime settled = LocalDateTime.now().minus(changesProperties.getSettleWindow());
+        List<T> changed = new ArrayList<>();
+        List<Long> deleted = new ArrayList<>();
+        long cursor = since;
+        boolean settling = false;
+
+        int i = 0, j = 0;
+        while (changed.size() + deleted.size() < max && (i < loans.size() || j < tombstones.size())) {
+            boolean takeLoan = j >= tombstones.size()
+                    || (i < loans.size() && loans.get(i).getChangeSeq() < tombstones.get(j).getChangeSeq());
+            long seq;
+            LocalDateTime at;
+            if (takeLoan) {
+                LoanApplication loan = loans.get(i++);
+                changed.add(mapper.apply(loan));
+                seq = loan.getChangeSeq();
+                at = loan.getUpdatedAt();
+            } else {
+                LoanTombstone tombstone = tombstones.get(j++);
+                deleted.add(tombstone.getLoanId());
+                seq = tombstone.getChangeSeq();
+                at = tombstone.getDeletedAt();
+            }
+            settling |= at == null || at.isAfter(settled);
+            if (!settling) cursor = seq;
         }
-        return false;
+
+        // Either list may have been cut off at the limit
+        boolean hasMore = !settling && (i < loans.size() || j < tombstones.size()
+                || loans.size() == max || tombstones.size() == max);
+        return new LoanChangesDTO<>(changed, deleted, cursor, hasMore);
     }
 
     @Override
     public Map<String, Long> getLoanStatistics() {
-        List<LoanApplication> all = loanRepo.findAll();
+        Map<LoanStatus, Long> counts = statusCounters.snapshot();
         Map<String, Long> summary = new HashMap<>();
 
-        summary.put("Applied", all.stream().filter(l -> l.getStatus().equals("Applied")).count());
-        summary.put("Evaluation", all.stream().filter(l -> l.getStatus().equals("Evaluation")).count());
-        summary.put("Approved", all.stream().filter(l -> l.getStatus().equals("Approved")).count());
-        summary.put("Rejected", all.stream().filter(l -> l.getStatus().equals("Rejected")).count());
+        for (LoanStatus status : LoanStatus.values()) {
+            summary.put(status.getLabel(), counts.getOrDefault(status, 0L));
+        }
 
         return summary;
     }
-}
\ No newline at end of file
+
+    @Override
+    public LoanReportDTO getLoanReport(String dateRange, String status) {
+        LocalDateTime from = reportStart(dateRange);
+        LoanStatus statusFilter = normalizeStatus(status);
+        LoanReportDTO report = new LoanReportDTO();
+
+        double totalVolume = 0;
+        for (LoanApplicationRepository.StatusTotal row : statsRepo.sumByStatus(from.toLocalDate(), statusFilter)) {
+            long count = row.getTotal();
+            report.setTotalApplications(report.getTotalApplications() + count);
+            totalVolume += row.getVolume() == null ? 0 : row.getVolume();
+            switch (row.getStatus()) {
+                case APPROVED -> report.setTotalApproved(count);
+                case REJECTED -> report.setTotalRejected(count);
+                case APPLIED, EVALUATION -> report.setTotalPending(report.getTotalPending() + count);
+                case null -> { }
+            }
+        }
+        long total = report.getTotalApplications();
+        report.setTotalVolume(totalVolume);
+        report.setApprovalRate(total > 0 ? round(report.getTotalApproved() * 100.0 / total, 1) : 0);
+        report.setAverageAmount(total > 0 ? round(totalVolume / total, 2) : 0);
+
+        // Trends cover the last six calendar months, further narrowed by the date range
+        YearMonth firstMonth = YearMonth.now().minusMonths(TREND_MONTHS - 1);
+        LocalDateTime trendFrom = firstMonth.atDay(1).atStartOfDay();
+        Map<YearMonth, MonthlyTrendDTO> trends = new LinkedHashMap<>();
+        for (int i = 0; i < TREND_MONTHS; i++) {
+            YearMonth month = firstMonth.plusMonths(i);
+            trends.put(month, new MonthlyTrendDTO(month.toString(), 0, 0, 0, 0));
+        }
+        for (LoanApplicationRepository.MonthlyStatusTotal row
+                : statsRepo.sumByMonthAndStatus((from.isAfter(trendFrom) ? from : trendFrom).toLocalDate(), statusFilter)) {
+            MonthlyTrendDTO trend = trends.get(YearMonth.of(row.getCreatedYear(), row.getCreatedMonth()));
+            if (trend == null) continue;
+            trend.setApplications(trend.getApplications() + row.getTotal());
+            trend.setVolume(trend.getVolume() + (row.getVolume() == null ? 0 : row.getVolume()));
+            if (row.getStatus() == LoanStatus.APPROVED) trend.setApproved(trend.getApproved() + row.getTotal());
+            else if (row.getStatus() == LoanStatus.REJECTED) trend.setRejected(trend.getRejected() + row.getTotal());
+        }
+        report.setTrendsData(new ArrayList<>(trends.values()));
+
+        report.setTypeDistribution(statsRepo.countByLoanType(from.toLocalDate(), statusFilter).stream()
+                .map(row -> new ChartEntryDTO(LoanDailyRollup.NONE.equals(row.getLoanType()) ? "Other" : row.getLoanType(), row.getTotal()))
+                .collect(Collectors.toList()));
+
+        LoanApplicationRepository.AmountRanges ranges = loanRepo.countByAmountRange(from, statusFilter);
+        report.setAmountRangeData(List.of(
+                new ChartEntryDTO("0-20,000 ALL", orZero(ranges.getUpTo20k())),
+                new ChartEntryDTO("20,000-100,000 ALL", orZero(ranges.getUpTo100k())),
+                new ChartEntryDTO("100,000-300,000 ALL", orZero(ranges.getUpTo300k())),
+                new ChartEntryDTO("300,000-1,000,000 ALL", orZero(ranges.getUpTo1m())),
+                new ChartEntryDTO("1,000,000+ ALL", orZero(ranges.getAbove1m()))));
+
+        return report;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void exportLoansCsv(String dateRange, String status, OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        writer.write("ID e Aplikimit,Emri i Klientit,Shuma,Kohëzgjatja,Lloji,Statusi,Data\n");
+        // Send the header right away so the download starts before the query finishes
+        writer.flush();
+
+        try (Stream<LoanExportRowDTO> rows = loanRepo.streamExportRows(reportStart(dateRange), normalizeStatus(status))) {
+            Iterator<LoanExportRowDTO> it = rows.iterator();
+            while (it.hasNext()) {
+                LoanExportRowDTO row = it.next();
+                writer.write(String.join(",",
+                        String.valueOf(row.getId()),
+                        csv(row.getFirstName() + " " + row.getLastName()),
+                        csv(row.getRequestedAmount() + " " + (row.getCurrency() != null ? row.getCurrency() : "N/A")),
+                        csv(row.getDurationMonths() + " muaj"),
+                        csv(row.getLoanType()),
+                        csv(row.getStatus() != null ? row.getStatus().getLabel() : null),
+                        row.getCreatedAt() != null ? row.getCreatedAt().toLocalDate().toString() : ""));
+                writer.write('\n');
+            }
+        }
+        writer.flush();
+    }
+
+    private static String csv(String value) {
+        if (value == null) return "";
+        if (value.contains(",") || value.contains("\"") || value.contains("\n") || value.contains("\r")) {
+            return "\"" + value.replace("\"", "\"\"") + "\"";
+        }
+        return value;
+    }
+
+    private static LocalDateTime reportStart(String dateRange) {
+        LocalDate today = LocalDate.now();
+        return switch (dateRange == null ? "month" : dateRange) {
+            case "all" -> REPORT_EPOCH;
+            case "week" -> today.minusWeeks(1).atStartOfDay();
+            case "quarter" -> today.minusMonths(3).atStartOfDay();
+            case "year" -> today.minusYears(1).atStartOfDay();
+            default -> today.minusMonths(1).atStartOfDay();
+        };
+    }
+
+    // "applied" -> APPLIED; "all" or empty means no status filter
+    private static LoanStatus normalizeStatus(String status) {
+        if (status == null || status.isBlank() || status.equalsIgnoreCase("all")) return null;
+        LoanStatus parsed = LoanStatus.fromLabel(status);
+        if (parsed == null) throw new IllegalArgumentException("Unknown status: " + status);
+        return parsed;
+    }
+
+    private static String blankToNull(String value) {
+        return value == null || value.isBlank() ? null : value;
+    }
+
+    private static long orZero(Long value) {
+        return value == null ? 0 : value;
+    }
+
+    private static double round(double value, int decimals) {
+        double scale = Math.pow(10, decimals);
+        return Math.round(value * scale) / scale;
+    }
+}
@@ -0,0 +1,92 @@
+package com.example.demo.service.impl;
+
+import com.example.demo.model.LoanStatus;
+import com.example.demo.repository.LoanApplicationRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Per-status loan counts kept in memory so the employee summary never touches the database.
+ * Seeded from one grouped COUNT query, updated by LoanServiceImpl after every committed write and
+ * periodically reconciled against the table to absorb any drift.
+ */
+@Component
+public class LoanStatusCounters {
+
+    private static final Logger logger = LoggerFactory.getLogger(LoanStatusCounters.class);
+
+    private final LoanApplicationRepository loanRepo;
+
+    // Immutable snapshot swapped atomically, so readers always see a consistent set of counts
+    private final AtomicReference<Map<LoanStatus, Long>> counts = new AtomicReference<>();
+
+    public LoanStatusCounters(LoanApplicationRepository loanRepo) {
+        this.loanRepo = loanRepo;
+    }
+
+    public Map<LoanStatus, Long> snapshot() {
+        Map<LoanStatus, Long> current = counts.get();
+        return current != null ? current : reconcile();
+    }
+
+    public void created(LoanStatus status) {
+        adjust(null, status);
+    }
+
+    public void deleted(LoanStatus status) {
+        adjust(status, null);
+    }
+
+    public void transitioned(LoanStatus from, LoanStatus to) {
+        adjust(from, to);
+    }
+
+    @Scheduled(fixedDelayString = "${loans.stats.reconcile-interval-ms:300000}")
+    public Map<LoanStatus, Long> reconcile() {
+        Map<LoanStatus, Long> fresh = new HashMap<>();
+        for (LoanApplicationRepository.StatusCount row : loanRepo.countByStatus()) {
+            if (row.getStatus() != null) fresh.put(row.getStatus(), row.getTotal());
+        }
+        Map<LoanStatus, Long> loaded = Map.copyOf(fresh);
+        Map<LoanStatus, Long> previous = counts.getAndSet(loaded);
+        if (previous != null && !previous.equals(loaded)) {
+            logger.info("Loan status counters reconciled: {} -> {}", previous, loaded);
+        }
+        return loaded;
+    }
+
+    // Inside a transaction the change counts only once it commits; a rolled-back write leaves
+    // the counts alone
+    private void adjust(LoanStatus from, LoanStatus to) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            apply(from, to);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                apply(from, to);
+            }
+        });
+    }
+
+    private void apply(LoanStatus from, LoanStatus to) {
+        // Not seeded yet: the first read will load exact counts from the database
+        if (counts.get() == null) return;
+
+        counts.updateAndGet(current -> {
+            Map<LoanStatus, Long> next = new HashMap<>(current);
+            if (from != null) next.merge(from, -1L, Long::sum);
+            if (to != null) next.merge(to, 1L, Long::sum);
+            return Map.copyOf(next);
+        });
+    }
+}
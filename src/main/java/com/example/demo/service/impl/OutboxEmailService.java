@@ -0,0 +1,34 @@
+package com.example.demo.service.impl;
+
+import com.example.demo.model.EmailOutbox;
+import com.example.demo.repository.EmailOutboxRepository;
+import com.example.demo.service.EmailService;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+
+// Queues the message in the outbox table and returns; EmailOutboxDispatcher delivers it
+@Service
+@ConditionalOnProperty(name = "email.mode", havingValue = "outbox", matchIfMissing = true)
+public class OutboxEmailService implements EmailService {
+
+    private final EmailOutboxRepository outboxRepo;
+
+    public OutboxEmailService(EmailOutboxRepository outboxRepo) {
+        this.outboxRepo = outboxRepo;
+    }
+
+    @Override
+    public void sendEmail(String to, String subject, String body) {
+        LocalDateTime now = LocalDateTime.now();
+        EmailOutbox message = new EmailOutbox();
+        message.setRecipient(to);
+        message.setSubject(subject);
+        message.setBody(body);
+        message.setStatus(EmailOutbox.PENDING);
+        message.setCreatedAt(now);
+        message.setNextAttemptAt(now);
+        outboxRepo.save(message);
+    }
+}
@@ -2,19 +2,33 @@ package com.example.demo.service.impl;
 
 import com.example.demo.model.User;
 import com.example.demo.repository.UserRepository;
+import com.example.demo.security.CustomUserDetailsService;
+import com.example.demo.security.FailedLoginTracker;
+import com.example.demo.security.LoginAdmissionControl;
+import com.example.demo.security.LoginThrottledException;
 import com.example.demo.service.UserService;
+import io.micrometer.core.annotation.Timed;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.stereotype.Service;
 
 @Service
+@Timed("user.service")
 public class UserServiceImpl implements UserService {
 
     private final UserRepository userRepository;
     private final BCryptPasswordEncoder passwordEncoder;
+    private final CustomUserDetailsService userDetailsService;
+    private final LoginAdmissionControl loginAdmission;
+    private final FailedLoginTracker failedLogins;
 
-    public UserServiceImpl(UserRepository userRepository, BCryptPasswordEncoder passwordEncoder) {
+    public UserServiceImpl(UserRepository userRepository, BCryptPasswordEncoder passwordEncoder,
+                           CustomUserDetailsService userDetailsService, LoginAdmissionControl loginAdmission,
+                           FailedLoginTracker failedLogins) {
         this.userRepository = userRepository;
         this.passwordEncoder = passwordEncoder;
+        this.userDetailsService = userDetailsService;
+        this.loginAdmission = loginAdmission;
+        this.failedLogins = failedLogins;
     }
 
     @Override
@@ -25,18 +39,28 @@ public class UserServiceImpl implements UserService {
 
     @Override
     public User authenticateClient(String username, String password) {
-        return userRepository.findByUsername(username)
-                .filter(u -> passwordEncoder.matches(password, u.getPassword()))
-                .filter(u -> u.getRole().equalsIgnoreCase("client"))
-                .orElse(null);
+        return authenticate(username, password, "client");
     }
 
     @Override
     public User authenticateEmployee(String username, String password) {
-        return userRepository.findByUsername(username)
-                .filter(u -> passwordEncoder.matches(password, u.getPassword()))
-                .filter(u -> u.getRole().equalsIgnoreCase("bank_employee"))
+        return authenticate(username, password, "bank_employee");
+    }
+
+    // Cheap checks first (lockout, user, role) so BCrypt only runs for plausible logins
+    private User authenticate(String username, String password, String role) {
+        if (failedLogins.isLocked(username)) {
+            throw new LoginThrottledException("Account temporarily locked: " + username);
+        }
+
+        User user = userRepository.findByUsername(username)
+                .filter(u -> u.getRole().equalsIgnoreCase(role))
+                .filter(u -> loginAdmission.matches(password, u.getPassword()))
                 .orElse(null);
+
+        if (user == null) failedLogins.recordFailure(username);
+        else failedLogins.recordSuccess(username);
+        return user;
     }
 
     @Override
@@ -60,7 +84,9 @@ public class UserServiceImpl implements UserService {
     @Override
     public User saveAndEncode(User user) {
         user.setPassword(passwordEncoder.encode(user.getPassword()));
-        return userRepository.save(user);
+        User saved = userRepository.save(user);
+        userDetailsService.evict(saved.getUsername());
+        return saved;
     }
 
     @Override
@@ -77,6 +103,8 @@ public class UserServiceImpl implements UserService {
             existingUser.setPassword(passwordEncoder.encode(updatedUser.getPassword()));
         }
 
-        return userRepository.save(existingUser);
+        User saved = userRepository.save(existingUser);
+        userDetailsService.evict(saved.getUsername());
+        return saved;
     }
 }
\ No newline at end of file
@@ -0,0 +1,5 @@
+-- Indexes behind the applicant prefix search (LoanSpecifications.applicantStartsWith).
+-- The search compares LOWER(first_name) and LOWER(last_name); @Index cannot declare
+-- function-based indexes, so ddl-auto=update never creates these. Run once.
+CREATE INDEX idx_user_first_name_lower ON users (LOWER(first_name));
+CREATE INDEX idx_user_last_name_lower ON users (LOWER(last_name));
@@ -0,0 +1,10 @@
+-- One-off backfill for applications created before delta sync existed.
+-- Run once after the first start of this version, when ddl-auto=update has added the
+-- change_seq/updated_at columns and the loan_change_seq sequence. Until then those rows
+-- are left out of /loans/changes.
+UPDATE loan_applications
+   SET change_seq = loan_change_seq.NEXTVAL,
+       updated_at = NVL(created_at, SYSTIMESTAMP)
+ WHERE change_seq IS NULL;
+
+COMMIT;
@@ -0,0 +1,35 @@
+-- One-off migration for schemas created while ids were IDENTITY columns.
+-- ddl-auto=update never alters existing columns or sequences, so run this once before
+-- deploying the sequence-based entities.
+--
+-- The pooled optimizer treats the first value it reads as the top of a block of 50,
+-- so each sequence starts 50 above the current max id.
+DECLARE
+    PROCEDURE migrate(p_table VARCHAR2, p_sequence VARCHAR2) IS
+        v_start  NUMBER;
+        v_exists NUMBER;
+    BEGIN
+        EXECUTE IMMEDIATE 'SELECT NVL(MAX(id), 0) + 50 FROM ' || p_table INTO v_start;
+
+        -- Hibernate now supplies the ids; a GENERATED ALWAYS column would reject them
+        BEGIN
+            EXECUTE IMMEDIATE 'ALTER TABLE ' || p_table || ' MODIFY id DROP IDENTITY';
+        EXCEPTION
+            WHEN OTHERS THEN
+                IF SQLCODE != -30673 THEN RAISE; END IF; -- column is not an identity column
+        END;
+
+        SELECT COUNT(*) INTO v_exists FROM user_sequences WHERE sequence_name = UPPER(p_sequence);
+        IF v_exists > 0 THEN
+            EXECUTE IMMEDIATE 'DROP SEQUENCE ' || p_sequence;
+        END IF;
+        EXECUTE IMMEDIATE 'CREATE SEQUENCE ' || p_sequence || ' START WITH ' || v_start || ' INCREMENT BY 50';
+    END;
+BEGIN
+    migrate('users', 'users_seq');
+    migrate('loan_applications', 'loan_applications_seq');
+    migrate('incomes', 'incomes_seq');
+    migrate('password_reset_code', 'password_reset_code_seq');
+    migrate('email_outbox', 'email_outbox_seq');
+END;
+/
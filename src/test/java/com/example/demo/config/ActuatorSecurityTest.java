@@ -0,0 +1,45 @@
+package com.example.demo.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.boot.test.web.server.LocalManagementPort;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.context.ActiveProfiles;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = "management.server.port=0")
+@AutoConfigureObservability
+@ActiveProfiles("test")
+class ActuatorSecurityTest {
+
+    @Autowired
+    private TestRestTemplate rest;
+    @LocalServerPort
+    private int port;
+    @LocalManagementPort
+    private int managementPort;
+
+    @Test
+    void actuatorIsNotReachableOnTheApplicationPort() {
+        for (String endpoint : new String[] {"health", "prometheus", "metrics", "info"}) {
+            HttpStatus status = get(port, "/actuator/" + endpoint);
+            assertTrue(status == HttpStatus.FORBIDDEN || status == HttpStatus.NOT_FOUND, endpoint + ": " + status);
+        }
+    }
+
+    @Test
+    void managementPortServesHealthAndPrometheusOnly() {
+        assertEquals(HttpStatus.OK, get(managementPort, "/actuator/health"));
+        assertEquals(HttpStatus.OK, get(managementPort, "/actuator/prometheus"));
+        assertEquals(HttpStatus.FORBIDDEN, get(managementPort, "/actuator/metrics"));
+    }
+
+    private HttpStatus get(int port, String path) {
+        return HttpStatus.valueOf(rest.getForEntity("http://localhost:" + port + path, String.class).getStatusCode().value());
+    }
+}
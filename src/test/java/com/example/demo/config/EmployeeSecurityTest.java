@@ -0,0 +1,46 @@
+package com.example.demo.config;
+
+import com.example.demo.service.JwtService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.context.ActiveProfiles;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("test")
+class EmployeeSecurityTest {
+
+    @Autowired
+    private TestRestTemplate rest;
+    @Autowired
+    private JwtService jwtService;
+    @LocalServerPort
+    private int port;
+
+    @Test
+    void employeeEndpointsRequireTheEmployeeRole() {
+        String client = jwtService.generateToken("client-user", "client");
+        String employee = jwtService.generateToken("employee-user", "bank_employee");
+
+        for (String path : new String[] {"/api/employee/loans/changes", "/api/employee/summary"}) {
+            assertEquals(HttpStatus.FORBIDDEN, get(path, null), path);
+            assertEquals(HttpStatus.FORBIDDEN, get(path, client), path);
+            assertEquals(HttpStatus.OK, get(path, employee), path);
+        }
+    }
+
+    private HttpStatus get(String path, String token) {
+        HttpHeaders headers = new HttpHeaders();
+        if (token != null) headers.setBearerAuth(token);
+        return HttpStatus.valueOf(rest.exchange("http://localhost:" + port + path, HttpMethod.GET,
+                new HttpEntity<>(headers), String.class).getStatusCode().value());
+    }
+}
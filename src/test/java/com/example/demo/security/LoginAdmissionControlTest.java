@@ -0,0 +1,71 @@
+package com.example.demo.security;
+
+import com.example.demo.config.LoginProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LoginAdmissionControlTest {
+
+    private static final Duration QUEUE_TIMEOUT = Duration.ofMillis(200);
+
+    private final CountDownLatch release = new CountDownLatch(1);
+    private final AtomicInteger hashes = new AtomicInteger();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final LoginAdmissionControl admission = new LoginAdmissionControl(new BlockingEncoder(), properties(), meterRegistry);
+
+    @AfterEach
+    void shutdown() {
+        release.countDown();
+        admission.shutdown();
+    }
+
+    @Test
+    void waitForAWorkerIsBoundedByTheQueueTimeoutAlone() throws Exception {
+        CompletableFuture<Boolean> first = CompletableFuture.supplyAsync(() -> admission.matches("secret", "hash"));
+        while (hashes.get() == 0) Thread.onSpinWait();
+
+        long start = System.nanoTime();
+        assertThrows(LoginThrottledException.class, () -> admission.matches("secret", "hash"));
+        long waited = System.nanoTime() - start;
+        assertTrue(waited >= QUEUE_TIMEOUT.toNanos() && waited < QUEUE_TIMEOUT.toNanos() * 5, "waited " + waited + "ns");
+
+        // A check that has started is given its grace; the abandoned one is never hashed
+        release.countDown();
+        assertTrue(first.get(5, TimeUnit.SECONDS));
+        assertFalse(admission.matches("secret", "other"));
+        assertEquals(2, hashes.get());
+        assertEquals(1.0, meterRegistry.counter("login.admission.expired").count());
+    }
+
+    private static LoginProperties properties() {
+        LoginProperties properties = new LoginProperties();
+        properties.getAdmission().setThreads(1);
+        properties.getAdmission().setQueueTimeout(QUEUE_TIMEOUT);
+        return properties;
+    }
+
+    // Holds the first check well past the queue timeout, then compares the strings as they are
+    private class BlockingEncoder extends BCryptPasswordEncoder {
+        @Override
+        public boolean matches(CharSequence rawPassword, String encodedPassword) {
+            if (hashes.incrementAndGet() == 1) {
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            return "hash".equals(encodedPassword);
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package com.example.demo.security;
+
+import com.example.demo.config.RateLimitProperties;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RateLimiterTest {
+
+    private static final String POLICY = RateLimiter.LOGIN_IP;
+    private static final Duration REFILL = Duration.ofSeconds(10);
+
+    private final AtomicLong now = new AtomicLong(1_000_000_000L);
+    private final RateLimiter rateLimiter = new RateLimiter(properties(3), now::get);
+
+    @Test
+    void burstUpToCapacityThenDenies() {
+        for (int i = 0; i < 3; i++) assertTrue(rateLimiter.tryAcquire(POLICY, "10.0.0.1"));
+        assertFalse(rateLimiter.tryAcquire(POLICY, "10.0.0.1"));
+        assertFalse(rateLimiter.tryAcquire(POLICY, "10.0.0.1"));
+
+        // Other keys have their own bucket
+        assertTrue(rateLimiter.tryAcquire(POLICY, "10.0.0.2"));
+    }
+
+    @Test
+    void refillsOneTokenPerPeriod() {
+        drain("10.0.0.1");
+
+        advance(REFILL.minusMillis(1));
+        assertFalse(rateLimiter.tryAcquire(POLICY, "10.0.0.1"));
+
+        advance(Duration.ofMillis(1));
+        assertTrue(rateLimiter.tryAcquire(POLICY, "10.0.0.1"));
+        assertFalse(rateLimiter.tryAcquire(POLICY, "10.0.0.1"));
+
+        // A long pause refills to capacity, never beyond it
+        advance(REFILL.multipliedBy(100));
+        for (int i = 0; i < 3; i++) assertTrue(rateLimiter.tryAcquire(POLICY, "10.0.0.1"));
+        assertFalse(rateLimiter.tryAcquire(POLICY, "10.0.0.1"));
+    }
+
+    @Test
+    void deniedCallsDoNotSpendTokens() {
+        drain("10.0.0.1");
+        advance(REFILL.dividedBy(2));
+        assertFalse(rateLimiter.tryAcquire(POLICY, "10.0.0.1"));
+
+        // The half token earned before the denial still counts
+        advance(REFILL.dividedBy(2));
+        assertTrue(rateLimiter.tryAcquire(POLICY, "10.0.0.1"));
+    }
+
+    @Test
+    void countsAllowedAndDeniedPerPolicy() {
+        drain("10.0.0.1");
+        rateLimiter.tryAcquire(POLICY, "10.0.0.1");
+        rateLimiter.tryAcquire(POLICY, "10.0.0.2");
+
+        // Three granted and one denied while draining, then one more of each
+        assertEquals(4, rateLimiter.allowedCount(POLICY));
+        assertEquals(2, rateLimiter.deniedCount(POLICY));
+        assertEquals(0, rateLimiter.allowedCount(RateLimiter.LOGIN_USER));
+    }
+
+    @Test
+    void evictsOnlyBucketsThatHaveRefilledCompletely() {
+        drain("10.0.0.1");
+        rateLimiter.tryAcquire(POLICY, "10.0.0.2");
+        assertEquals(2, rateLimiter.trackedKeys());
+
+        // 10.0.0.2 is one token short, 10.0.0.1 three
+        advance(REFILL);
+        rateLimiter.evictIdleBuckets();
+        assertEquals(1, rateLimiter.trackedKeys());
+
+        advance(REFILL.multipliedBy(2).minusMillis(1));
+        rateLimiter.evictIdleBuckets();
+        assertEquals(1, rateLimiter.trackedKeys());
+
+        advance(Duration.ofMillis(1));
+        rateLimiter.evictIdleBuckets();
+        assertEquals(0, rateLimiter.trackedKeys());
+
+        // An evicted key starts over with a full bucket
+        for (int i = 0; i < 3; i++) assertTrue(rateLimiter.tryAcquire(POLICY, "10.0.0.1"));
+    }
+
+    @Test
+    void unknownPolicyIsAnError() {
+        assertThrows(IllegalStateException.class, () -> rateLimiter.tryAcquire("missing", "10.0.0.1"));
+    }
+
+    private void drain(String key) {
+        for (int i = 0; i < 3; i++) assertTrue(rateLimiter.tryAcquire(POLICY, key));
+        assertFalse(rateLimiter.tryAcquire(POLICY, key));
+    }
+
+    private void advance(Duration duration) {
+        now.addAndGet(duration.toNanos());
+    }
+
+    private static RateLimitProperties properties(int capacity) {
+        RateLimitProperties.Policy policy = new RateLimitProperties.Policy();
+        policy.setCapacity(capacity);
+        policy.setRefillPeriod(REFILL);
+
+        RateLimitProperties properties = new RateLimitProperties();
+        properties.setPolicies(Map.of(POLICY, policy, RateLimiter.LOGIN_USER, policy));
+        return properties;
+    }
+}
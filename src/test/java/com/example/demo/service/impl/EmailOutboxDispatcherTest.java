@@ -0,0 +1,186 @@
+package com.example.demo.service.impl;
+
+import com.example.demo.config.EmailOutboxProperties;
+import com.example.demo.model.EmailOutbox;
+import com.example.demo.repository.EmailOutboxRepository;
+import com.example.demo.service.EmailService;
+import com.icegreen.greenmail.junit5.GreenMailExtension;
+import com.icegreen.greenmail.util.ServerSetupTest;
+import jakarta.mail.internet.MimeMessage;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.net.ServerSocket;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {
+        "spring.mail.host=localhost",
+        "spring.mail.port=3025",
+        "spring.mail.username=",
+        "spring.mail.password=",
+        "spring.mail.properties.mail.smtp.auth=false",
+        "spring.mail.properties.mail.smtp.starttls.enable=false",
+        "email.outbox.max-attempts=3",
+        "email.outbox.initial-backoff=30s",
+        "email.outbox.max-backoff=45s"
+})
+@ActiveProfiles("test")
+class EmailOutboxDispatcherTest {
+
+    @RegisterExtension
+    static GreenMailExtension smtp = new GreenMailExtension(ServerSetupTest.SMTP);
+
+    @Autowired
+    private EmailOutboxDispatcher dispatcher;
+    @Autowired
+    private EmailService emailService;
+    @Autowired
+    private EmailOutboxRepository outboxRepo;
+    @Autowired
+    private EmailOutboxProperties properties;
+
+    @BeforeEach
+    void emptyOutbox() {
+        outboxRepo.deleteAll();
+    }
+
+    @Test
+    void deliversQueuedMessages() throws Exception {
+        emailService.sendEmail("ana@example.com", "Kodi", "123456");
+
+        dispatcher.drain();
+
+        MimeMessage[] received = smtp.getReceivedMessages();
+        assertEquals(1, received.length);
+        assertEquals("Kodi", received[0].getSubject());
+        assertEquals("ana@example.com", received[0].getAllRecipients()[0].toString());
+        EmailOutbox message = single();
+        assertEquals(EmailOutbox.SENT, message.getStatus());
+        assertEquals(1, message.getAttempts());
+        assertNotNull(message.getSentAt());
+    }
+
+    @Test
+    void retriesWithBackoffUntilTheServerIsBack() {
+        emailService.sendEmail("ana@example.com", "Kodi", "123456");
+        smtp.stop();
+
+        dispatcher.drain();
+        EmailOutbox message = single();
+        assertEquals(EmailOutbox.PENDING, message.getStatus());
+        assertEquals(1, message.getAttempts());
+        assertNotNull(message.getLastError());
+        assertDueIn(Duration.ofSeconds(30), message);
+
+        makeDue(message);
+        dispatcher.drain();
+        message = single();
+        assertEquals(2, message.getAttempts());
+        assertDueIn(Duration.ofSeconds(45), message); // 60s, capped at max-backoff
+
+        smtp.start();
+        makeDue(message);
+        dispatcher.drain();
+        message = single();
+        assertEquals(EmailOutbox.SENT, message.getStatus());
+        assertEquals(3, message.getAttempts());
+        assertNull(message.getLastError());
+        assertEquals(1, smtp.getReceivedMessages().length);
+    }
+
+    @Test
+    void givesUpAfterMaxAttempts() {
+        emailService.sendEmail("ana@example.com", "Kodi", "123456");
+        smtp.stop();
+
+        for (int i = 0; i < 3; i++) {
+            makeDue(single());
+            dispatcher.drain();
+        }
+
+        EmailOutbox message = single();
+        assertEquals(EmailOutbox.FAILED, message.getStatus());
+        assertEquals(3, message.getAttempts());
+        // Not picked up again
+        dispatcher.drain();
+        assertEquals(3, single().getAttempts());
+    }
+
+    @Test
+    void concurrentDrainsSendEachMessageOnce() {
+        int count = 40;
+        IntStream.range(0, count).forEach(i -> emailService.sendEmail("user" + i + "@example.com", "Kodi", "123456"));
+
+        List<CompletableFuture<Void>> drains = IntStream.range(0, 4)
+                .mapToObj(i -> CompletableFuture.runAsync(dispatcher::drain))
+                .toList();
+        drains.forEach(CompletableFuture::join);
+
+        assertEquals(count, smtp.getReceivedMessages().length);
+        assertTrue(outboxRepo.findAll().stream()
+                .allMatch(m -> EmailOutbox.SENT.equals(m.getStatus()) && m.getAttempts() == 1));
+    }
+
+    @Test
+    void reclaimsMessagesWhoseSenderDied() {
+        emailService.sendEmail("ana@example.com", "Kodi", "123456");
+        EmailOutbox message = single();
+        LocalDateTime now = LocalDateTime.now();
+        // Claimed by an instance that never reported back
+        assertEquals(1, outboxRepo.claim(message.getId(), now, now.plusMinutes(5)));
+
+        dispatcher.drain();
+        assertEquals(0, smtp.getReceivedMessages().length);
+
+        makeDue(single());
+        dispatcher.drain();
+        assertEquals(1, smtp.getReceivedMessages().length);
+        assertEquals(EmailOutbox.SENT, single().getStatus());
+    }
+
+    @Test
+    void stopsWaitingForAStalledServerAtTheClaimTimeout() throws Exception {
+        emailService.sendEmail("ana@example.com", "Kodi", "123456");
+        smtp.stop();
+        Duration claimTimeout = properties.getClaimTimeout();
+        properties.setClaimTimeout(Duration.ofSeconds(1));
+        // Accepts the connection but never sends the SMTP greeting
+        try (ServerSocket stalled = new ServerSocket(ServerSetupTest.SMTP.getPort())) {
+            long start = System.nanoTime();
+            dispatcher.drain();
+            Duration waited = Duration.ofNanos(System.nanoTime() - start);
+            assertTrue(waited.compareTo(Duration.ofSeconds(5)) < 0, "drain took " + waited);
+        } finally {
+            properties.setClaimTimeout(claimTimeout);
+            smtp.start();
+        }
+        assertNotEquals(EmailOutbox.SENT, single().getStatus());
+    }
+
+    private EmailOutbox single() {
+        List<EmailOutbox> all = outboxRepo.findAll();
+        assertEquals(1, all.size());
+        return all.get(0);
+    }
+
+    private void makeDue(EmailOutbox message) {
+        message.setNextAttemptAt(LocalDateTime.now().minusSeconds(1));
+        outboxRepo.save(message);
+    }
+
+    private static void assertDueIn(Duration expected, EmailOutbox message) {
+        Duration actual = Duration.between(LocalDateTime.now(), message.getNextAttemptAt());
+        assertTrue(actual.compareTo(expected.minusSeconds(5)) > 0 && actual.compareTo(expected) <= 0,
+                "next attempt in " + actual + ", expected about " + expected);
+    }
+}
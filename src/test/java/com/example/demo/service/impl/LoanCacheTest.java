@@ -0,0 +1,89 @@
+package com.example.demo.service.impl;
+
+import com.example.demo.dto.CreateLoanApplicationDTO;
+import com.example.demo.model.LoanApplication;
+import com.example.demo.model.LoanStatus;
+import com.example.demo.model.User;
+import com.example.demo.repository.UserRepository;
+import com.example.demo.service.LoanService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.function.Supplier;
+
+import static com.example.demo.support.LoanFixtures.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+// Second-level cache entries must follow every write, and a status change must not cost the other loans theirs
+@SpringBootTest
+@ActiveProfiles("test")
+class LoanCacheTest {
+
+    @Autowired
+    private LoanService loanService;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    @Autowired
+    private TransactionTemplate transactions;
+
+    private User client;
+
+    @BeforeEach
+    void createClient() {
+        client = newClient(userRepository);
+    }
+
+    @Test
+    void cachedReadsFollowEditsTransitionsAndDeletes() {
+        Long id = loanService.save(loan(client)).getId();
+        Long other = loanService.save(loan(client)).getId();
+        Long withdrawn = loanService.save(loan(client)).getId();
+        assertTrue(entityManagerFactory.getCache().contains(LoanApplication.class, id));
+
+        CreateLoanApplicationDTO edit = edit(25000.0, income("Paga", 800.0));
+        assertTrue(loanService.updateLoan(id, client.getUsername(), edit));
+        assertEquals(25000.0, fromCache("loans", () -> loanService.getLoanById(id)).getRequestedAmount());
+        // A changed collection is evicted rather than rewritten, so the first read puts it back
+        Supplier<List<Double>> incomes = () -> transactions.execute(status ->
+                loanService.getLoanById(id).getIncomes().stream().map(income -> income.getAmount()).toList());
+        incomes.get();
+        assertEquals(List.of(800.0), fromCache("loan-incomes", incomes));
+
+        assertTrue(loanService.approveLoan(id, "employee"));
+        // The status UPDATE runs outside Hibernate and evicts the loan, so the next read fetches the new row
+        assertEquals(LoanStatus.APPROVED, loanService.getLoanById(id).getStatus());
+        assertEquals(LoanStatus.APPROVED, fromCache("loans", () -> loanService.getLoanById(id)).getStatus());
+        // Other loans, and the loan's incomes, keep their entries
+        assertEquals(LoanStatus.APPLIED, fromCache("loans", () -> loanService.getLoanById(other)).getStatus());
+        assertEquals(List.of(800.0), fromCache("loan-incomes", incomes));
+
+        assertEquals(1, loanService.decideLoans("reject", List.of(other), "employee").getUpdated());
+        // A bulk decision evicts just the loans it moved
+        assertEquals(LoanStatus.REJECTED, loanService.getLoanById(other).getStatus());
+        assertEquals(LoanStatus.REJECTED, fromCache("loans", () -> loanService.getLoanById(other)).getStatus());
+        assertEquals(LoanStatus.APPROVED, fromCache("loans", () -> loanService.getLoanById(id)).getStatus());
+
+        assertTrue(loanService.delete(withdrawn, client.getUsername()));
+        assertNull(loanService.getLoanById(withdrawn));
+    }
+
+    // The read must be answered by the region, so a stale entry would show up here
+    private <T> T fromCache(String region, Supplier<T> read) {
+        CacheRegionStatistics statistics = entityManagerFactory.unwrap(SessionFactory.class)
+                .getStatistics().getDomainDataRegionStatistics(region);
+        long hits = statistics.getHitCount();
+        T value = read.get();
+        assertTrue(statistics.getHitCount() > hits, "served from the " + region + " region");
+        return value;
+    }
+}
@@ -0,0 +1,148 @@
+package com.example.demo.service.impl;
+
+import com.example.demo.config.LoanChangesProperties;
+import com.example.demo.dto.LoanChangesDTO;
+import com.example.demo.dto.LoanSummaryDTO;
+import com.example.demo.model.LoanApplication;
+import com.example.demo.model.LoanTombstone;
+import com.example.demo.repository.LoanApplicationRepository;
+import com.example.demo.repository.LoanTombstoneRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+// The merge behind /loans/changes, fed with hand-made sequence values and timestamps
+class LoanChangesTest {
+
+    private static final String USERNAME = "ana";
+    private static final LocalDateTime SETTLED = LocalDateTime.now().minusMinutes(5);
+
+    private final LoanApplicationRepository loanRepo = mock(LoanApplicationRepository.class);
+    private final LoanTombstoneRepository tombstoneRepo = mock(LoanTombstoneRepository.class);
+    private final LoanChangesProperties properties = new LoanChangesProperties();
+    private LoanServiceImpl service;
+
+    @BeforeEach
+    void createService() {
+        properties.setMaxResults(3);
+        properties.setSettleWindow(Duration.ofSeconds(10));
+        service = new LoanServiceImpl(loanRepo, null, null, null, tombstoneRepo, properties, null, null);
+    }
+
+    @Test
+    void interleavesUpdatesAndDeletesInSequenceOrder() {
+        properties.setMaxResults(10);
+        given(0, List.of(loan(1, SETTLED), loan(3, SETTLED), loan(6, SETTLED)),
+                List.of(tombstone(2, SETTLED), tombstone(4, SETTLED), tombstone(5, SETTLED)));
+
+        LoanChangesDTO<LoanSummaryDTO> changes = service.getLoanChangesByUsername(USERNAME, 0);
+
+        assertEquals(List.of(101L, 103L, 106L), changedIds(changes));
+        assertEquals(List.of(202L, 204L, 205L), changes.getDeleted());
+        assertEquals(6, changes.getCursor());
+        assertFalse(changes.isHasMore());
+    }
+
+    @Test
+    void stopsAtMaxResultsAndResumesFromTheCursor() {
+        given(0, List.of(loan(1, SETTLED), loan(2, SETTLED), loan(4, SETTLED)), List.of(tombstone(3, SETTLED)));
+
+        LoanChangesDTO<LoanSummaryDTO> first = service.getLoanChangesByUsername(USERNAME, 0);
+
+        assertEquals(List.of(101L, 102L), changedIds(first));
+        assertEquals(List.of(203L), first.getDeleted());
+        assertEquals(3, first.getCursor());
+        assertTrue(first.isHasMore());
+
+        given(3, List.of(loan(4, SETTLED)), List.of());
+        LoanChangesDTO<LoanSummaryDTO> second = service.getLoanChangesByUsername(USERNAME, first.getCursor());
+
+        assertEquals(List.of(104L), changedIds(second));
+        assertEquals(4, second.getCursor());
+        assertFalse(second.isHasMore());
+    }
+
+    @Test
+    void reportsMoreWhenAListWasCutOffAtTheLimit() {
+        // Three loans fill the limit exactly; there may be a fourth behind them
+        given(0, List.of(loan(1, SETTLED), loan(2, SETTLED), loan(3, SETTLED)), List.of());
+
+        LoanChangesDTO<LoanSummaryDTO> changes = service.getLoanChangesByUsername(USERNAME, 0);
+
+        assertEquals(3, changes.getCursor());
+        assertTrue(changes.isHasMore());
+    }
+
+    @Test
+    void cursorStopsBeforeTheFirstUnsettledWrite() {
+        properties.setMaxResults(10);
+        LocalDateTime recent = LocalDateTime.now().minusSeconds(1);
+        // 2 is recent: a write with a lower value taken just before it may not have committed yet
+        given(0, List.of(loan(1, SETTLED), loan(2, recent), loan(4, SETTLED)), List.of(tombstone(3, SETTLED)));
+
+        LoanChangesDTO<LoanSummaryDTO> changes = service.getLoanChangesByUsername(USERNAME, 0);
+
+        // Everything is sent, but the cursor stays put and the writes are sent again next time
+        assertEquals(List.of(101L, 102L, 104L), changedIds(changes));
+        assertEquals(List.of(203L), changes.getDeleted());
+        assertEquals(1, changes.getCursor());
+        assertFalse(changes.isHasMore());
+    }
+
+    @Test
+    void recentDeletesAndMissingTimestampsHoldTheCursorToo() {
+        properties.setMaxResults(10);
+        given(5, List.of(loan(8, null)), List.of(tombstone(6, SETTLED), tombstone(7, LocalDateTime.now())));
+
+        LoanChangesDTO<LoanSummaryDTO> changes = service.getLoanChangesByUsername(USERNAME, 5);
+
+        assertEquals(6, changes.getCursor());
+        assertEquals(List.of(206L, 207L), changes.getDeleted());
+        assertEquals(List.of(108L), changedIds(changes));
+    }
+
+    @Test
+    void nothingNewKeepsTheCursor() {
+        given(9, List.of(), List.of());
+
+        LoanChangesDTO<LoanSummaryDTO> changes = service.getLoanChangesByUsername(USERNAME, 9);
+
+        assertEquals(9, changes.getCursor());
+        assertTrue(changes.getChanged().isEmpty() && changes.getDeleted().isEmpty());
+        assertFalse(changes.isHasMore());
+    }
+
+    private void given(long since, List<LoanApplication> loans, List<LoanTombstone> tombstones) {
+        when(loanRepo.findByUserUsernameAndChangeSeqGreaterThanOrderByChangeSeqAsc(eq(USERNAME), eq(since), any()))
+                .thenReturn(loans);
+        when(tombstoneRepo.findByUsernameSince(eq(USERNAME), eq(since), any())).thenReturn(tombstones);
+    }
+
+    // Loan ids are 100 + seq and deleted ids 200 + seq, so the assertions show where each came from
+    private static LoanApplication loan(long seq, LocalDateTime updatedAt) {
+        LoanApplication loan = new LoanApplication();
+        loan.setId(100 + seq);
+        loan.setChangeSeq(seq);
+        loan.setUpdatedAt(updatedAt);
+        return loan;
+    }
+
+    private static LoanTombstone tombstone(long seq, LocalDateTime deletedAt) {
+        LoanTombstone tombstone = new LoanTombstone(200 + seq, 1L, deletedAt);
+        tombstone.setChangeSeq(seq);
+        return tombstone;
+    }
+
+    private static List<Long> changedIds(LoanChangesDTO<LoanSummaryDTO> changes) {
+        return changes.getChanged().stream().map(LoanSummaryDTO::getId).toList();
+    }
+}
@@ -0,0 +1,117 @@
+package com.example.demo.service.impl;
+
+import com.example.demo.model.LoanApplication;
+import com.example.demo.model.LoanDailyStats;
+import com.example.demo.model.LoanDailyStatsId;
+import com.example.demo.model.LoanStatus;
+import com.example.demo.model.User;
+import com.example.demo.repository.LoanDailyStatsRepository;
+import com.example.demo.repository.UserRepository;
+import com.example.demo.service.LoanService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import static com.example.demo.support.LoanFixtures.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class LoanDailyRollupTest {
+
+    @Autowired
+    private LoanService loanService;
+    @Autowired
+    private LoanDailyRollup dailyRollup;
+    @Autowired
+    private LoanDailyStatsRepository statsRepo;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private TransactionTemplate transactions;
+
+    private User client;
+    // Unique per test, so rows from other tests never match
+    private String loanType;
+
+    @BeforeEach
+    void createClient() {
+        client = newClient(userRepository);
+        loanType = "type-" + UUID.randomUUID();
+    }
+
+    @Test
+    void writesKeepTheRollupInStepWithTheLoans() {
+        LocalDateTime yesterday = LocalDateTime.now().minusDays(1);
+        LoanApplication approved = newLoan(yesterday, 1000.0);
+        LoanApplication rejected = newLoan(yesterday, 500.0);
+        LoanApplication deleted = newLoan(yesterday.minusDays(1), 200.0);
+        assertTrue(loanService.approveLoan(approved.getId(), "employee"));
+        assertTrue(loanService.rejectLoan(rejected.getId(), "employee"));
+        assertTrue(loanService.delete(deleted.getId(), client.getUsername()));
+
+        Map<LoanDailyStatsId, String> incremental = rollup();
+        dailyRollup.rebuild();
+
+        assertEquals(incremental, rollup());
+        LocalDate day = yesterday.toLocalDate();
+        assertEquals("1/1000.0", rollup().get(new LoanDailyStatsId(day, loanType, "ALL", LoanStatus.APPROVED)));
+        assertEquals("1/500.0", rollup().get(new LoanDailyStatsId(day, loanType, "ALL", LoanStatus.REJECTED)));
+        assertFalse(rollup().containsKey(new LoanDailyStatsId(day, loanType, "ALL", LoanStatus.APPLIED)));
+    }
+
+    @Test
+    void rebuildCorrectsDriftedAndStaleRows() {
+        LocalDateTime created = LocalDateTime.now().minusDays(3);
+        newLoan(created, 300.0);
+        LoanDailyStatsId key = new LoanDailyStatsId(created.toLocalDate(), loanType, "ALL", LoanStatus.APPLIED);
+        LoanDailyStatsId stale = new LoanDailyStatsId(created.toLocalDate(), loanType, "EUR", LoanStatus.APPLIED);
+        transactions.executeWithoutResult(status -> {
+            statsRepo.increment(key.getDay(), key.getLoanType(), key.getCurrency(), key.getStatus(), 4, 10);
+            statsRepo.insertIfAbsent(stale);
+            statsRepo.increment(stale.getDay(), stale.getLoanType(), stale.getCurrency(), stale.getStatus(), 1, 50);
+        });
+
+        dailyRollup.rebuild();
+
+        assertEquals(Map.of(key, "1/300.0"), rollup());
+    }
+
+    @Test
+    void insertingAnExistingKeyLeavesTheTransactionUsable() {
+        LoanDailyStatsId key = new LoanDailyStatsId(LocalDate.now(), loanType, "ALL", LoanStatus.APPLIED);
+
+        transactions.executeWithoutResult(status -> {
+            assertTrue(statsRepo.insertIfAbsent(key));
+            assertFalse(statsRepo.insertIfAbsent(key));
+            statsRepo.increment(key.getDay(), key.getLoanType(), key.getCurrency(), key.getStatus(), 2, 20);
+        });
+
+        assertEquals(Map.of(key, "2/20.0"), rollup());
+    }
+
+    // Rows left at zero by moves and deletes are dropped by the rebuild, so they are not compared
+    private Map<LoanDailyStatsId, String> rollup() {
+        return statsRepo.findAll().stream()
+                .filter(row -> loanType.equals(row.getId().getLoanType()) && row.getApplications() != 0)
+                .collect(Collectors.toMap(LoanDailyStats::getId, row -> row.getApplications() + "/" + row.getVolume()));
+    }
+
+    // The shared fixture, moved to the given day and this test's loan type
+    private LoanApplication newLoan(LocalDateTime createdAt, double amount) {
+        LoanApplication loan = loan(client);
+        loan.setCreatedAt(createdAt);
+        loan.setRequestedAmount(amount);
+        loan.setLoanType(loanType);
+        return loanService.save(loan);
+    }
+}
@@ -0,0 +1,256 @@
+package com.example.demo.service.impl;
+
+import com.example.demo.dto.BulkDecisionResultDTO;
+import com.example.demo.dto.CreateLoanApplicationDTO;
+import com.example.demo.dto.LoanApplicationDTO;
+import com.example.demo.dto.LoanFilterDTO;
+import com.example.demo.dto.LoanSort;
+import com.example.demo.model.Income;
+import com.example.demo.model.LoanApplication;
+import com.example.demo.model.LoanStatus;
+import com.example.demo.model.LoanStatusHistory;
+import com.example.demo.model.User;
+import com.example.demo.repository.IncomeRepository;
+import com.example.demo.repository.LoanApplicationRepository;
+import com.example.demo.repository.LoanStatusHistoryRepository;
+import com.example.demo.repository.UserRepository;
+import com.example.demo.service.LoanService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static com.example.demo.support.LoanFixtures.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class LoanServiceImplTest {
+
+    @Autowired
+    private LoanService loanService;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private LoanStatusHistoryRepository historyRepository;
+    @Autowired
+    private IncomeRepository incomeRepository;
+    @Autowired
+    private LoanApplicationRepository loanRepository;
+    @Autowired
+    private TransactionTemplate transactions;
+
+    private User client;
+
+    @BeforeEach
+    void createClient() {
+        client = newClient(userRepository, "Ana", "Hoxha");
+    }
+
+    @Test
+    void decideLoansIgnoresNullAndDuplicateIds() {
+        LoanApplication loan = loanService.save(loan(client));
+
+        BulkDecisionResultDTO result = loanService.decideLoans("approve", Arrays.asList(loan.getId(), null, loan.getId()), "employee");
+
+        assertEquals(1, result.getUpdated());
+        assertEquals(Map.of(loan.getId(), BulkDecisionResultDTO.UPDATED), result.getOutcomes());
+        assertEquals(LoanStatus.APPROVED, loanService.getLoanById(loan.getId()).getStatus());
+    }
+
+    @Test
+    void decideLoansAcceptsMissingIds() {
+        BulkDecisionResultDTO result = loanService.decideLoans("approve", null, "employee");
+
+        assertEquals(0, result.getUpdated());
+        assertTrue(result.getOutcomes().isEmpty());
+    }
+
+    @Test
+    void concurrentDecisionsOnOneLoanHaveExactlyOneWinner() throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(2);
+        try {
+            for (int i = 0; i < 20; i++) {
+                Long id = loanService.save(loan(client)).getId();
+                CyclicBarrier start = new CyclicBarrier(2);
+                Future<Boolean> approve = pool.submit(() -> {
+                    start.await();
+                    return loanService.approveLoan(id, "employee-1");
+                });
+                Future<Boolean> reject = pool.submit(() -> {
+                    start.await();
+                    return loanService.rejectLoan(id, "employee-2");
+                });
+                boolean approved = approve.get(10, TimeUnit.SECONDS);
+                boolean rejected = reject.get(10, TimeUnit.SECONDS);
+
+                assertTrue(approved ^ rejected, "exactly one decision may win");
+                List<LoanStatusHistory> history = historyRepository.findAll().stream()
+                        .filter(row -> id.equals(row.getLoanId()))
+                        .toList();
+                assertEquals(1, history.size());
+                LoanStatus winner = approved ? LoanStatus.APPROVED : LoanStatus.REJECTED;
+                assertEquals(winner, history.get(0).getToStatus());
+                assertEquals(winner, loanService.getLoanById(id).getStatus());
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    void decideLoansReportsEachOutcome() {
+        Long applied = loanService.save(loan(client)).getId();
+        Long evaluating = loanService.save(loan(client)).getId();
+        Long rejected = loanService.save(loan(client)).getId();
+        assertTrue(loanService.evaluateLoan(evaluating, "employee"));
+        assertTrue(loanService.rejectLoan(rejected, "employee"));
+
+        BulkDecisionResultDTO result = loanService.decideLoans("approve", List.of(applied, evaluating, rejected, -1L), "employee");
+
+        assertEquals(2, result.getUpdated());
+        assertEquals(Map.of(applied, BulkDecisionResultDTO.UPDATED, evaluating, BulkDecisionResultDTO.UPDATED,
+                rejected, BulkDecisionResultDTO.NOT_ALLOWED, -1L, BulkDecisionResultDTO.NOT_FOUND), result.getOutcomes());
+        assertEquals(List.of(LoanStatus.APPLIED, LoanStatus.EVALUATION), historyRepository.findAll().stream()
+                .filter(row -> row.getToStatus() == LoanStatus.APPROVED && List.of(applied, evaluating).contains(row.getLoanId()))
+                .sorted(Comparator.comparing(LoanStatusHistory::getLoanId))
+                .map(LoanStatusHistory::getFromStatus)
+                .toList());
+    }
+
+    @Test
+    void statusMovesAgainstAStaleSnapshotChangeNothing() {
+        Long edited = loanService.save(loan(client)).getId();
+        Long untouched = loanService.save(loan(client)).getId();
+        List<LoanApplicationRepository.StatusSnapshot> snapshots = loanRepository.findStatusSnapshots(List.of(edited, untouched));
+        assertTrue(loanService.patchLoan(edited, client.getUsername(), patch(null, 20000.0)));
+
+        List<Long> seen = snapshots.stream().map(LoanApplicationRepository.StatusSnapshot::getChangeSeq).toList();
+        Long staleVersion = snapshots.stream().filter(row -> row.getId().equals(edited)).findFirst().orElseThrow().getVersion();
+        transactions.executeWithoutResult(status -> {
+            assertFalse(loanRepository.moveStatus(edited, staleVersion, LoanStatus.APPROVED, LocalDateTime.now()));
+            assertEquals(List.of(untouched), loanRepository.moveStatuses(List.of(edited, untouched), seen,
+                    List.of(LoanStatus.APPLIED), LoanStatus.APPROVED, loanRepository.nextChangeSeq(), LocalDateTime.now()));
+        });
+
+        assertEquals(LoanStatus.APPLIED, loanService.getLoanById(edited).getStatus());
+        assertEquals(LoanStatus.APPROVED, loanService.getLoanById(untouched).getStatus());
+    }
+
+    @Test
+    void deleteOnlyRemovesTheOwnersAppliedLoans() {
+        Long applied = loanService.save(loan(client)).getId();
+        Long evaluating = loanService.save(loan(client)).getId();
+        assertTrue(loanService.evaluateLoan(evaluating, "employee"));
+
+        assertFalse(loanService.delete(applied, newClient(userRepository).getUsername()));
+        assertFalse(loanService.delete(evaluating, client.getUsername()));
+        assertFalse(loanService.delete(-1L, client.getUsername()));
+        assertNotNull(loanService.getLoanById(applied));
+        assertNotNull(loanService.getLoanById(evaluating));
+
+        assertTrue(loanService.delete(applied, client.getUsername()));
+        assertNull(loanService.getLoanById(applied));
+    }
+
+    @Test
+    void transitionFromAFinalStatusChangesNothing() {
+        Long id = loanService.save(loan(client)).getId();
+        assertTrue(loanService.rejectLoan(id, "employee"));
+
+        assertFalse(loanService.approveLoan(id, "employee"));
+        assertFalse(loanService.approveLoan(-1L, "employee"));
+        assertEquals(LoanStatus.REJECTED, loanService.getLoanById(id).getStatus());
+    }
+
+    @Test
+    void applicantSearchMatchesWildcardsLiterally() {
+        String prefix = "t" + UUID.randomUUID().toString().substring(0, 8);
+        LoanApplication underscore = loanService.save(loan(newClient(userRepository, prefix + "_a", "Hoxha")));
+        loanService.save(loan(newClient(userRepository, prefix + "xa", "Hoxha")));
+
+        assertEquals(List.of(underscore.getId()), searchApplicant(prefix + "_"));
+        assertEquals(List.of(), searchApplicant(prefix + "%"));
+        assertEquals(2, searchApplicant(prefix.toUpperCase()).size());
+    }
+
+    @Test
+    void editsReuseUpdateInsertAndRemoveIncomeRows() {
+        Long id = loanService.save(loan(client)).getId();
+        assertTrue(loanService.updateLoan(id, client.getUsername(), edit(10000.0, income("Paga", 500.0), income("Qeraja", 200.0))));
+        Map<Long, Double> before = incomes(id);
+        assertEquals(2, before.size());
+
+        // Paga is unchanged and keeps its row; Qeraja's row is reused for Biznesi
+        assertTrue(loanService.updateLoan(id, client.getUsername(), edit(10000.0, income("Paga", 500.0), income("Biznesi", 900.0))));
+        Map<Long, Double> reused = incomes(id);
+        assertEquals(before.keySet(), reused.keySet());
+        assertEquals(Set.of(500.0, 900.0), Set.copyOf(reused.values()));
+
+        // One more income is a single new row
+        assertTrue(loanService.updateLoan(id, client.getUsername(),
+                edit(10000.0, income("Paga", 500.0), income("Biznesi", 900.0), income("Qeraja", 300.0))));
+        Map<Long, Double> inserted = incomes(id);
+        assertEquals(3, inserted.size());
+        assertTrue(inserted.keySet().containsAll(before.keySet()));
+
+        // Dropping two leaves only the row that is still sent
+        assertTrue(loanService.updateLoan(id, client.getUsername(), edit(10000.0, income("Biznesi", 900.0))));
+        Map<Long, Double> removed = incomes(id);
+        assertEquals(Set.of(900.0), Set.copyOf(removed.values()));
+        assertTrue(before.keySet().containsAll(removed.keySet()));
+    }
+
+    @Test
+    void editAgainstAnOlderVersionIsRefused() {
+        Long id = loanService.save(loan(client)).getId();
+        Long loaded = loanService.getLoanById(id).getVersion();
+        assertTrue(loanService.patchLoan(id, client.getUsername(), patch(loaded, 12000.0)));
+
+        // A second tab still holding the first copy
+        assertThrows(ObjectOptimisticLockingFailureException.class,
+                () -> loanService.patchLoan(id, client.getUsername(), patch(loaded, 15000.0)));
+        assertEquals(12000.0, loanService.getLoanById(id).getRequestedAmount());
+
+        Long current = loanService.getLoanById(id).getVersion();
+        assertNotEquals(loaded, current);
+        assertTrue(loanService.patchLoan(id, client.getUsername(), patch(current, 15000.0)));
+        assertEquals(15000.0, loanService.getLoanById(id).getRequestedAmount());
+    }
+
+    private List<Long> searchApplicant(String applicant) {
+        LoanFilterDTO filter = new LoanFilterDTO();
+        filter.setApplicant(applicant);
+        return loanService.getLoansPage(filter, null, 50, LoanSort.NEWEST).getItems().stream()
+                .map(LoanApplicationDTO::getId)
+                .toList();
+    }
+
+    private Map<Long, Double> incomes(Long loanId) {
+        return incomeRepository.findAll().stream()
+                .filter(income -> income.getLoanApplication().getId().equals(loanId))
+                .collect(Collectors.toMap(Income::getId, Income::getAmount));
+    }
+
+    private static CreateLoanApplicationDTO patch(Long version, Double amount) {
+        return new CreateLoanApplicationDTO(null, null, null, null, null, null, null,
+                amount, null, null, null, null, version);
+    }
+}
@@ -0,0 +1,70 @@
+package com.example.demo.service.impl;
+
+import com.example.demo.model.LoanStatus;
+import com.example.demo.model.User;
+import com.example.demo.repository.UserRepository;
+import com.example.demo.service.LoanService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import static com.example.demo.support.LoanFixtures.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class LoanStatusCountersTest {
+
+    @Autowired
+    private LoanService loanService;
+    @Autowired
+    private LoanStatusCounters counters;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private TransactionTemplate transactions;
+
+    private User client;
+
+    @BeforeEach
+    void seed() {
+        client = newClient(userRepository);
+        counters.reconcile();
+    }
+
+    @Test
+    void countsChangeOnlyWhenTheWriteCommits() {
+        long applied = count(LoanStatus.APPLIED);
+
+        transactions.executeWithoutResult(status -> {
+            loanService.save(loan(client));
+            assertEquals(applied, count(LoanStatus.APPLIED), "visible before commit");
+        });
+
+        assertEquals(applied + 1, count(LoanStatus.APPLIED));
+    }
+
+    @Test
+    void rolledBackWritesLeaveTheCountsAlone() {
+        Long id = loanService.save(loan(client)).getId();
+        long applied = count(LoanStatus.APPLIED);
+        long approved = count(LoanStatus.APPROVED);
+
+        transactions.executeWithoutResult(status -> {
+            loanService.save(loan(client));
+            assertTrue(loanService.approveLoan(id, "employee"));
+            status.setRollbackOnly();
+        });
+
+        assertEquals(applied, count(LoanStatus.APPLIED));
+        assertEquals(approved, count(LoanStatus.APPROVED));
+        assertEquals(counters.snapshot(), counters.reconcile());
+    }
+
+    private long count(LoanStatus status) {
+        return counters.snapshot().getOrDefault(status, 0L);
+    }
+}
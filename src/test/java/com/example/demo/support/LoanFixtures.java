@@ -0,0 +1,63 @@
+package com.example.demo.support;
+
+import com.example.demo.dto.CreateLoanApplicationDTO;
+import com.example.demo.dto.IncomeDTO;
+import com.example.demo.model.LoanApplication;
+import com.example.demo.model.LoanStatus;
+import com.example.demo.model.User;
+import com.example.demo.repository.UserRepository;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+// Clients, loans and edit requests shared by the service tests
+public final class LoanFixtures {
+
+    private LoanFixtures() {
+    }
+
+    // A client with a unique username, so tests sharing a context never collide
+    public static User newClient(UserRepository userRepository) {
+        return newClient(userRepository, null, null);
+    }
+
+    public static User newClient(UserRepository userRepository, String firstName, String lastName) {
+        User user = new User();
+        user.setUsername("client-" + UUID.randomUUID());
+        user.setRole("client");
+        user.setFirstName(firstName);
+        user.setLastName(lastName);
+        return userRepository.save(user);
+    }
+
+    // A fresh, unsaved application in Applied; tests adjust what they care about before saving
+    public static LoanApplication loan(User owner) {
+        LoanApplication loan = new LoanApplication();
+        loan.setUser(owner);
+        loan.setRequestedAmount(10000.0);
+        loan.setCurrency("ALL");
+        loan.setDurationMonths(24);
+        loan.setLoanType("Kredi personale");
+        loan.setStatus(LoanStatus.APPLIED);
+        loan.setCreatedAt(LocalDateTime.now());
+        loan.setIncomes(List.of());
+        return loan;
+    }
+
+    // A full edit (PUT) of the loan terms and incomes, without a version
+    public static CreateLoanApplicationDTO edit(Double amount, IncomeDTO... incomes) {
+        return new CreateLoanApplicationDTO(null, null, null, null, null, null, null,
+                amount, "ALL", 24, "Kredi personale", List.of(incomes), null);
+    }
+
+    public static IncomeDTO income(String type, Double amount) {
+        IncomeDTO income = new IncomeDTO();
+        income.setIncomeType(type);
+        income.setAmount(amount);
+        income.setCurrency("ALL");
+        income.setSince(LocalDate.of(2020, 1, 1));
+        return income;
+    }
+}